@@ -0,0 +1,29 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.batch.BatchEvaluator;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Evaluates sessions from the file given as the only argument or from stdin and prints results to stdout,
+ * doesn't need JavaFX.
+ *
+ * @author: myzone
+ * @date: 20.10.26 05:40
+ */
+public class BatchApplication {
+
+    public static void main(String[] args) throws IOException {
+        BatchEvaluator evaluator = new BatchEvaluator(Runtime.getRuntime().availableProcessors());
+
+        try (InputStream input = args.length > 0 ? new FileInputStream(args[0]) : System.in;
+             OutputStream output = new BufferedOutputStream(System.out)) {
+            evaluator.evaluate(input, output);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.replication.ReplicationPrimary;
+import com.myzone.calculator.server.CalculatorServer;
+import com.myzone.utils.concurrent.BigFractionAdder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs headless calculator server, arguments are a port to listen on (0 picks any free one), max count of sessions
+ * per connection, optional standby address as host:port and replication mode, asynchronous by default. Prints the
+ * address it listens on once it's bound. Sessions share a single memory register if {@code calculator.sharedMemory}
+ * system property is true, it can't be used together with a standby.
+ *
+ * @author: myzone
+ * @date: 20.10.26 04:45
+ */
+public class ServerApplication {
+
+    private static final int DEFAULT_PORT = 7070;
+    private static final long ACKNOWLEDGEMENT_TIMEOUT_MILLIS = 1000;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessionsPerConnection = args.length > 1 ? Integer.parseInt(args[1]) : CalculatorServer.DEFAULT_MAX_SESSIONS_PER_CONNECTION;
+
+        ReplicationPrimary replication = null;
+        if (args.length > 2) {
+            String standby = args[2];
+            int separator = standby.lastIndexOf(':');
+            ReplicationPrimary.Mode mode = args.length > 3 ? ReplicationPrimary.Mode.valueOf(args[3]) : ReplicationPrimary.Mode.ASYNCHRONOUS;
+
+            replication = new ReplicationPrimary(
+                    new InetSocketAddress(standby.substring(0, separator), Integer.parseInt(standby.substring(separator + 1))),
+                    mode,
+                    ACKNOWLEDGEMENT_TIMEOUT_MILLIS,
+                    TimeUnit.MILLISECONDS
+            );
+        }
+
+        // all sessions are served by a single thread, so there is nothing to stripe
+        BigFractionAdder sharedMemory = Boolean.getBoolean("calculator.sharedMemory") ? new BigFractionAdder(1) : null;
+
+        try (CalculatorServer server = new CalculatorServer(new InetSocketAddress(port), maxSessionsPerConnection, replication, sharedMemory)) {
+            System.out.println("Listening on " + server.getLocalAddress());
+            System.out.flush();
+
+            server.run();
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.replication.StandbyServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Runs standby of a calculator server, the only argument is a port to listen for the primary on (0 picks any free
+ * one). Prints the address it listens on once it's bound.
+ *
+ * @author: myzone
+ * @date: 20.10.26 14:40
+ */
+public class StandbyApplication {
+
+    private static final int DEFAULT_PORT = 7071;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        try (StandbyServer server = new StandbyServer(new InetSocketAddress(port))) {
+            System.out.println("Listening on " + server.getLocalAddress());
+            System.out.flush();
+
+            server.run();
+        }
+    }
+
+}
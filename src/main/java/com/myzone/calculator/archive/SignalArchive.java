@@ -0,0 +1,38 @@
+package com.myzone.calculator.archive;
+
+import com.myzone.calculator.model.Signal;
+
+/**
+ * Layout of signal archives. An archive is a header followed by independent blocks:
+ * <pre>
+ * header: int MAGIC, byte VERSION
+ * block:  int signal count, int payload length, CONTEXTS x ALPHABET_SIZE code lengths packed in nibbles, payload
+ * </pre>
+ * Payload is an MSB first bit stream of prefix codes. Digits mostly come in short runs, so each signal is coded by
+ * the code of its context, which is length of the digit run preceding it (capped at {@code CONTEXTS - 1}).
+ *
+ * @author: myzone
+ * @date: 20.10.26 07:20
+ */
+final class SignalArchive {
+
+    static final int MAGIC = 0x534C4F47; // "SLOG"
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 5;
+
+    static final int CONTEXTS = 8;
+    static final int CODE_LENGTHS_SIZE = CONTEXTS * SignalCode.ALPHABET_SIZE / 2;
+    static final int BLOCK_HEADER_SIZE = 8 + CODE_LENGTHS_SIZE;
+
+    private static final int LAST_DIGIT = Signal.DIGIT_9.ordinal();
+
+    private SignalArchive() {
+    }
+
+    static final int INITIAL_CONTEXT = 0;
+
+    static int nextContext(int context, int symbol) {
+        return symbol <= LAST_DIGIT ? Math.min(context + 1, CONTEXTS - 1) : 0;
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.myzone.calculator.archive;
+
+import com.myzone.calculator.model.Signal;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.myzone.calculator.archive.SignalArchive.*;
+
+/**
+ * Reads archives written by {@link SignalArchiveWriter}. Block headers are indexed on construction, so any block can
+ * be decoded on its own, by any thread: buffer of the reader is never repositioned.
+ *
+ * @author: myzone
+ * @date: 20.10.26 08:00
+ */
+public class SignalArchiveReader {
+
+    private static final Signal[] SIGNALS = Signal.values();
+
+    private final ByteBuffer archive;
+
+    private final int[] offsets;
+    private final int[] counts;
+    private final long[] firstSignals;
+    private final long signalCount;
+
+    public SignalArchiveReader(@NotNull ByteBuffer archive) {
+        this.archive = archive.duplicate();
+
+        int position = this.archive.position();
+        if (this.archive.remaining() < HEADER_SIZE || this.archive.getInt(position) != MAGIC)
+            throw new IllegalArgumentException("Buffer doesn't contain signal archive");
+        if (this.archive.get(position + 4) != VERSION)
+            throw new IllegalArgumentException("Archive version " + this.archive.get(position + 4) + " isn't supported");
+        position += HEADER_SIZE;
+
+        int[] offsets = new int[16];
+        int[] counts = new int[16];
+        long[] firstSignals = new long[16];
+        int blocks = 0;
+        long signalCount = 0;
+
+        while (position < this.archive.limit()) {
+            if (this.archive.limit() - position < BLOCK_HEADER_SIZE)
+                throw new IllegalArgumentException("Block " + blocks + " is truncated");
+
+            int count = this.archive.getInt(position);
+            int payloadLength = this.archive.getInt(position + 4);
+            if (count < 0 || payloadLength < 0 || this.archive.limit() - position - BLOCK_HEADER_SIZE < payloadLength)
+                throw new IllegalArgumentException("Block " + blocks + " is corrupted");
+
+            if (blocks == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blocks * 2);
+                counts = Arrays.copyOf(counts, blocks * 2);
+                firstSignals = Arrays.copyOf(firstSignals, blocks * 2);
+            }
+            offsets[blocks] = position;
+            counts[blocks] = count;
+            firstSignals[blocks] = signalCount;
+            blocks++;
+
+            signalCount += count;
+            position += BLOCK_HEADER_SIZE + payloadLength;
+        }
+
+        this.offsets = Arrays.copyOf(offsets, blocks);
+        this.counts = Arrays.copyOf(counts, blocks);
+        this.firstSignals = Arrays.copyOf(firstSignals, blocks);
+        this.signalCount = signalCount;
+    }
+
+    public int getBlockCount() {
+        return offsets.length;
+    }
+
+    public long getSignalCount() {
+        return signalCount;
+    }
+
+    public int getBlockSignalCount(int block) {
+        return counts[block];
+    }
+
+    /**
+     * @return index of the first signal of the block in the whole archive
+     */
+    public long getFirstSignal(int block) {
+        return firstSignals[block];
+    }
+
+    /**
+     * @return index of the block containing the signal
+     */
+    public int findBlock(long signal) {
+        if (signal < 0 || signal >= signalCount)
+            throw new IndexOutOfBoundsException("Archive contains " + signalCount + " signals, not " + signal);
+
+        int block = Arrays.binarySearch(firstSignals, signal);
+        if (block < 0)
+            return -block - 2;
+
+        // empty blocks share the first signal with the next one
+        while (counts[block] == 0) {
+            block++;
+        }
+        return block;
+    }
+
+    /**
+     * @return count of decoded signals
+     */
+    public int decodeBlock(int block, @NotNull Signal[] target, int offset) {
+        int position = offsets[block];
+        int count = counts[block];
+        int end = position + BLOCK_HEADER_SIZE + archive.getInt(position + 4);
+
+        if (target.length - offset < count)
+            throw new IndexOutOfBoundsException("Block " + block + " contains " + count + " signals, target has room for " + (target.length - offset));
+
+        // entries of all contexts in a single table: symbol << 8 | next context << 4 | length
+        char[] table = new char[CONTEXTS << SignalCode.MAX_LENGTH];
+        for (int context = 0; context < CONTEXTS; context++) {
+            byte[] lengths = new byte[SignalCode.ALPHABET_SIZE];
+
+            for (int symbol = 0; symbol < lengths.length; symbol += 2) {
+                int packed = archive.get(position + 8 + context * lengths.length / 2 + symbol / 2);
+                lengths[symbol] = (byte) (packed >>> 4 & 0xF);
+                lengths[symbol + 1] = (byte) (packed & 0xF);
+            }
+
+            short[] contextTable = new SignalCode(lengths).decodingTable();
+            for (int i = 0; i < contextTable.length; i++) {
+                int symbol = contextTable[i] >>> 4;
+                table[context << SignalCode.MAX_LENGTH | i] = (char) (symbol << 8 | nextContext(context, symbol) << 4 | contextTable[i] & 0xF);
+            }
+        }
+        position += BLOCK_HEADER_SIZE;
+
+        long bits = 0;
+        int bitCount = 0;
+        int context = INITIAL_CONTEXT;
+
+        for (int i = 0; i < count; i++) {
+            if (bitCount < SignalCode.MAX_LENGTH) {
+                if (end - position >= 8) {
+                    // bits beyond the counted ones are the same as the next refill brings, so they are safe to or
+                    bits |= archive.getLong(position) >>> bitCount;
+                    position += (63 - bitCount) >>> 3;
+                    bitCount |= 56;
+                } else {
+                    // zeros past the payload are never consumed by valid codes
+                    while (bitCount <= 56) {
+                        bits |= (long) (position < end ? archive.get(position++) & 0xFF : 0) << (56 - bitCount);
+                        bitCount += 8;
+                    }
+                }
+            }
+
+            int entry = table[context << SignalCode.MAX_LENGTH | (int) (bits >>> (64 - SignalCode.MAX_LENGTH))];
+            int length = entry & 0xF;
+            if (length == 0)
+                throw new IllegalArgumentException("Block " + block + " is corrupted at signal " + i);
+
+            bits <<= length;
+            bitCount -= length;
+
+            target[offset + i] = SIGNALS[entry >>> 8];
+            context = entry >>> 4 & 0xF;
+        }
+
+        return count;
+    }
+
+    @NotNull
+    public Signal[] decodeAll() {
+        Signal[] signals = allocate();
+
+        for (int block = 0; block < offsets.length; block++) {
+            decodeBlock(block, signals, (int) firstSignals[block]);
+        }
+
+        return signals;
+    }
+
+    /**
+     * Decodes blocks in parallel on the pool.
+     */
+    @NotNull
+    public Signal[] decodeAll(@NotNull ForkJoinPool pool) {
+        Signal[] signals = allocate();
+        pool.invoke(new DecodingTask(signals, 0, offsets.length));
+
+        return signals;
+    }
+
+    private Signal[] allocate() {
+        if (signalCount > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Archive of " + signalCount + " signals doesn't fit into an array, decode it by blocks");
+
+        return new Signal[(int) signalCount];
+    }
+
+    protected class DecodingTask extends RecursiveAction {
+
+        private final Signal[] target;
+        private final int fromBlock;
+        private final int toBlock;
+
+        public DecodingTask(Signal[] target, int fromBlock, int toBlock) {
+            this.target = target;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock <= 1) {
+                for (int block = fromBlock; block < toBlock; block++) {
+                    decodeBlock(block, target, (int) firstSignals[block]);
+                }
+                return;
+            }
+
+            int middle = (fromBlock + toBlock) >>> 1;
+            invokeAll(new DecodingTask(target, fromBlock, middle), new DecodingTask(target, middle, toBlock));
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.myzone.calculator.archive;
+
+import com.myzone.calculator.model.Signal;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import static com.myzone.calculator.archive.SignalArchive.*;
+
+/**
+ * Appends signals to an archive, every {@code blockSize} signals are compressed to a separate block with codes built
+ * for their own frequencies. Not thread safe.
+ *
+ * @author: myzone
+ * @date: 20.10.26 07:40
+ */
+public class SignalArchiveWriter implements Flushable, Closeable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final DataOutputStream output;
+    private final byte[] symbols;
+    private int count;
+
+    private byte[] payload;
+
+    public SignalArchiveWriter(@NotNull OutputStream output) throws IOException {
+        this(output, DEFAULT_BLOCK_SIZE);
+    }
+
+    public SignalArchiveWriter(@NotNull OutputStream output, int blockSize) throws IOException {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Block size has to be positive");
+
+        this.output = new DataOutputStream(output);
+        this.symbols = new byte[blockSize];
+        this.payload = new byte[blockSize];
+
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+    }
+
+    public void write(@NotNull Signal signal) throws IOException {
+        symbols[count++] = (byte) signal.ordinal();
+
+        if (count == symbols.length) {
+            writeBlock();
+        }
+    }
+
+    public void write(@NotNull Signal... signals) throws IOException {
+        for (Signal signal : signals) {
+            write(signal);
+        }
+    }
+
+    /**
+     * Writes pending signals as a (possibly short) block.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            writeBlock();
+        }
+
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    protected void writeBlock() throws IOException {
+        int[][] frequencies = new int[CONTEXTS][SignalCode.ALPHABET_SIZE];
+        int context = INITIAL_CONTEXT;
+        for (int i = 0; i < count; i++) {
+            frequencies[context][symbols[i]]++;
+            context = nextContext(context, symbols[i]);
+        }
+
+        SignalCode[] codes = new SignalCode[CONTEXTS];
+        for (int i = 0; i < CONTEXTS; i++) {
+            codes[i] = SignalCode.build(frequencies[i]);
+        }
+
+        int length = 0;
+        long bits = 0;
+        int bitCount = 0;
+
+        context = INITIAL_CONTEXT;
+        for (int i = 0; i < count; i++) {
+            SignalCode code = codes[context];
+            int symbol = symbols[i];
+
+            bits = bits << code.getLength(symbol) | code.getCode(symbol);
+            bitCount += code.getLength(symbol);
+            context = nextContext(context, symbol);
+
+            while (bitCount >= 8) {
+                if (length == payload.length) {
+                    payload = Arrays.copyOf(payload, payload.length * 2);
+                }
+
+                bitCount -= 8;
+                payload[length++] = (byte) (bits >>> bitCount);
+            }
+        }
+        if (bitCount > 0) {
+            if (length == payload.length) {
+                payload = Arrays.copyOf(payload, payload.length + 1);
+            }
+
+            payload[length++] = (byte) (bits << (8 - bitCount));
+        }
+
+        output.writeInt(count);
+        output.writeInt(length);
+        for (SignalCode code : codes) {
+            byte[] lengths = code.getLengths();
+
+            for (int symbol = 0; symbol < lengths.length; symbol += 2) {
+                output.writeByte(lengths[symbol] << 4 | lengths[symbol + 1]);
+            }
+        }
+        output.write(payload, 0, length);
+
+        count = 0;
+    }
+
+}
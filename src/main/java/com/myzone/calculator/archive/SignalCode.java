@@ -0,0 +1,140 @@
+package com.myzone.calculator.archive;
+
+import com.myzone.calculator.model.Signal;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Canonical prefix code over signals, built from their frequencies in a block. Code lengths are limited, so the
+ * decoder finds every signal by a single lookup of {@link #MAX_LENGTH} bits.
+ *
+ * @author: myzone
+ * @date: 20.10.26 07:30
+ */
+class SignalCode {
+
+    static final int ALPHABET_SIZE = Signal.values().length;
+    static final int MAX_LENGTH = 12;
+
+    private final byte[] lengths;
+    private final int[] codes;
+
+    SignalCode(byte[] lengths) {
+        this.lengths = lengths;
+        this.codes = new int[ALPHABET_SIZE];
+
+        // canonical assignment: shorter codes first, ties are broken by ordinal
+        int code = 0;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                if (lengths[symbol] == length) {
+                    codes[symbol] = code++;
+                }
+            }
+            code <<= 1;
+        }
+    }
+
+    static SignalCode build(int[] frequencies) {
+        int[] scaled = frequencies.clone();
+
+        while (true) {
+            byte[] lengths = lengths(scaled);
+
+            int maxLength = 0;
+            for (byte length : lengths) {
+                maxLength = Math.max(maxLength, length);
+            }
+            if (maxLength <= MAX_LENGTH)
+                return new SignalCode(lengths);
+
+            // flattening the distribution shortens the longest codes
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                if (scaled[symbol] > 0) {
+                    scaled[symbol] = Math.max(1, scaled[symbol] >>> 1);
+                }
+            }
+        }
+    }
+
+    private static byte[] lengths(int[] frequencies) {
+        byte[] lengths = new byte[ALPHABET_SIZE];
+
+        // nodes are symbols first and then merged subtrees, ordered by weight
+        int[] parents = new int[ALPHABET_SIZE * 2];
+        long[] weights = new long[ALPHABET_SIZE * 2];
+        PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> Long.compare(weights[a], weights[b]));
+
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (frequencies[symbol] > 0) {
+                weights[symbol] = frequencies[symbol];
+                queue.add(symbol);
+            }
+        }
+
+        if (queue.size() == 1) {
+            lengths[queue.remove()] = 1;
+            return lengths;
+        }
+
+        int nodes = ALPHABET_SIZE;
+        Arrays.fill(parents, -1);
+        while (queue.size() > 1) {
+            int a = queue.remove();
+            int b = queue.remove();
+
+            weights[nodes] = weights[a] + weights[b];
+            parents[a] = nodes;
+            parents[b] = nodes;
+            queue.add(nodes++);
+        }
+
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (frequencies[symbol] > 0) {
+                int length = 0;
+                for (int node = symbol; parents[node] >= 0; node = parents[node]) {
+                    length++;
+                }
+                lengths[symbol] = (byte) Math.min(length, Byte.MAX_VALUE);
+            }
+        }
+
+        return lengths;
+    }
+
+    byte[] getLengths() {
+        return lengths;
+    }
+
+    int getLength(int symbol) {
+        return lengths[symbol];
+    }
+
+    int getCode(int symbol) {
+        return codes[symbol];
+    }
+
+    /**
+     * @return table indexed by next {@link #MAX_LENGTH} bits, every entry is {@code symbol << 4 | length}
+     */
+    short[] decodingTable() {
+        short[] table = new short[1 << MAX_LENGTH];
+
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            int length = lengths[symbol];
+
+            if (length > 0) {
+                int shift = MAX_LENGTH - length;
+
+                if (length > MAX_LENGTH || (codes[symbol] + 1) << shift > table.length)
+                    throw new IllegalArgumentException("Code lengths don't form a prefix code");
+
+                Arrays.fill(table, codes[symbol] << shift, (codes[symbol] + 1) << shift, (short) (symbol << 4 | length));
+            }
+        }
+
+        return table;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.myzone.calculator.batch;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.controller.SignalReplayer;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.model.SignalDecoder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates sessions, one per line of signal representations like {@code 12+3=}, {@code MS} or {@code 1/x}, and
+ * writes display text of each one to its own line. Blocks of lines are evaluated in parallel, but results are
+ * written in order of the input; at most two blocks per thread are in flight, so memory doesn't depend on the
+ * input size. Lines are decoded right from the read buffers by {@link SignalDecoder}, without any intermediate
+ * strings.
+ *
+ * @author: myzone
+ * @date: 20.10.26 05:10
+ */
+public class BatchEvaluator {
+
+    public static final String INVALID = "INVALID";
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final SignalDecoder DECODER = new SignalDecoder();
+
+    protected final int parallelism;
+
+    public BatchEvaluator(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism has to be positive");
+
+        this.parallelism = parallelism;
+    }
+
+    public void evaluate(@NotNull InputStream input, @NotNull OutputStream output) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-evaluator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Queue<Future<byte[]>> inFlight = new ArrayDeque<>();
+
+            byte[] block = new byte[BLOCK_SIZE];
+            int length = 0;
+
+            while (true) {
+                if (length == block.length) {
+                    // line is longer than the block
+                    block = Arrays.copyOf(block, block.length * 2);
+                }
+
+                int read = input.read(block, length, block.length - length);
+                if (read < 0)
+                    break;
+
+                length += read;
+
+                int end = lastIndexOf(block, (byte) '\n', length);
+                if (end < 0)
+                    continue;
+
+                // the block is handed over to evaluation, only incomplete line is copied to the next one
+                byte[] lines = block;
+                int linesLength = end + 1;
+                block = new byte[Math.max(BLOCK_SIZE, length - linesLength)];
+                System.arraycopy(lines, linesLength, block, 0, length - linesLength);
+                length -= linesLength;
+
+                if (inFlight.size() >= parallelism * 2) {
+                    output.write(await(inFlight.remove()));
+                }
+                inFlight.add(executor.submit(() -> evaluateLines(lines, linesLength)));
+            }
+
+            if (length > 0) {
+                byte[] lines = block;
+                int linesLength = length;
+                inFlight.add(executor.submit(() -> evaluateLines(lines, linesLength)));
+            }
+
+            while (!inFlight.isEmpty()) {
+                output.write(await(inFlight.remove()));
+            }
+            output.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected byte[] evaluateLines(byte[] lines, int length) {
+        ByteArrayOutputStream results = new ByteArrayOutputStream(length);
+        ByteBuffer buffer = ByteBuffer.wrap(lines);
+        SignalCollector signals = new SignalCollector();
+
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && lines[end] != '\n') {
+                end++;
+            }
+
+            buffer.limit(end > start && lines[end - 1] == '\r' ? end - 1 : end).position(start);
+            byte[] result = evaluateLine(buffer, signals).getBytes(StandardCharsets.UTF_8);
+            results.write(result, 0, result.length);
+            results.write('\n');
+
+            start = end + 1;
+        }
+
+        return results.toByteArray();
+    }
+
+    @NotNull
+    protected String evaluateLine(@NotNull ByteBuffer line, @NotNull SignalCollector signals) {
+        signals.count = 0;
+        if (!DECODER.decode(line, signals))
+            return INVALID;
+
+        CalculatorModel model = new CalculatorModel(CalculatorModel.ConcurrencyMode.THREAD_CONFINED);
+        new SignalReplayer(new CalculatorStateFactory(model, () -> {
+        })).replay(Arrays.copyOf(signals.signals, signals.count));
+
+        try (CalculatorModel.Session session = model.createSession()) {
+            return session.getDisplayText();
+        }
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte b, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == b)
+                return i;
+        }
+
+        return -1;
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Evaluation has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Evaluation has failed", e.getCause());
+        }
+    }
+
+    protected static class SignalCollector implements Consumer<Signal> {
+
+        private Signal[] signals = new Signal[64];
+        private int count;
+
+        @Override
+        public void accept(Signal signal) {
+            if (count == signals.length) {
+                signals = Arrays.copyOf(signals, count * 2);
+            }
+
+            signals[count++] = signal;
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+package com.myzone.calculator.cluster;
+
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.server.CalculatorClient;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hosts calculator sessions on a set of {@link com.myzone.calculator.server.CalculatorServer} workers. Sessions get
+ * ids which stay the same for their whole life, every session lives on the worker owning its id on the consistent
+ * hash ring, so when workers join or leave only sessions changing their owner are migrated, by exporting their state
+ * from one worker and importing it to another.
+ * <p>
+ * Signals of different sessions are routed concurrently, joins and leaves wait for them.
+ *
+ * @author: myzone
+ * @date: 20.10.26 12:10
+ */
+public class SessionRegistry implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionRegistry.class);
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+
+    private final ReadWriteLock membershipLock;
+    private final TreeMap<Integer, InetSocketAddress> ring;
+    private final Map<InetSocketAddress, CalculatorClient> workers;
+    private final Map<Integer, InetSocketAddress> owners;
+
+    private int nextSessionId;
+
+    public SessionRegistry() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param virtualNodes count of points of each worker on the ring, more of them balance sessions more evenly
+     */
+    public SessionRegistry(int virtualNodes) {
+        if (virtualNodes < 1)
+            throw new IllegalArgumentException("Worker has to have at least one virtual node");
+
+        this.virtualNodes = virtualNodes;
+
+        membershipLock = new ReentrantReadWriteLock();
+        ring = new TreeMap<>();
+        workers = new HashMap<>();
+        owners = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Connects to the worker and migrates to it sessions it owns now.
+     */
+    public void join(@NotNull InetSocketAddress worker) throws IOException {
+        membershipLock.writeLock().lock();
+        try {
+            if (workers.containsKey(worker))
+                throw new IllegalArgumentException(worker + " has already joined");
+
+            workers.put(worker, new CalculatorClient(worker));
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(virtualNodeHash(worker, i), worker);
+            }
+
+            rebalance();
+        } finally {
+            membershipLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Migrates sessions of the worker to the rest ones and disconnects from it.
+     */
+    public void leave(@NotNull InetSocketAddress worker) throws IOException {
+        membershipLock.writeLock().lock();
+        try {
+            if (!workers.containsKey(worker))
+                throw new IllegalArgumentException(worker + " isn't a worker");
+            if (workers.size() == 1 && !owners.isEmpty())
+                throw new IllegalStateException("The last worker can't leave while there are open sessions");
+
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.remove(virtualNodeHash(worker, i), worker);
+            }
+
+            try {
+                rebalance();
+            } catch (IOException | RuntimeException e) {
+                // sessions which haven't been migrated stay with the worker
+                for (int i = 0; i < virtualNodes; i++) {
+                    ring.put(virtualNodeHash(worker, i), worker);
+                }
+                throw e;
+            }
+
+            workers.remove(worker).close();
+        } finally {
+            membershipLock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    public Set<InetSocketAddress> getWorkers() {
+        membershipLock.readLock().lock();
+        try {
+            return Collections.unmodifiableSet(new HashSet<>(workers.keySet()));
+        } finally {
+            membershipLock.readLock().unlock();
+        }
+    }
+
+    @NotNull
+    public InetSocketAddress getOwner(int sessionId) {
+        InetSocketAddress owner = owners.get(sessionId);
+        if (owner == null)
+            throw new IllegalArgumentException("There is no session " + sessionId);
+
+        return owner;
+    }
+
+    public int getSessionCount() {
+        return owners.size();
+    }
+
+    /**
+     * @return id of the new session
+     */
+    public int openSession() throws IOException {
+        membershipLock.readLock().lock();
+        try {
+            if (ring.isEmpty())
+                throw new IllegalStateException("There aren't any workers");
+
+            int sessionId;
+            synchronized (this) {
+                sessionId = nextSessionId++;
+            }
+
+            InetSocketAddress owner = ownerOf(sessionId);
+            workers.get(owner).open(sessionId);
+            owners.put(sessionId, owner);
+
+            return sessionId;
+        } finally {
+            membershipLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Routes the batch to the owner of the session.
+     *
+     * @return update after the last signal
+     */
+    @NotNull
+    public CalculatorClient.Update process(int sessionId, @NotNull Signal... signals) throws IOException {
+        membershipLock.readLock().lock();
+        try {
+            return workers.get(getOwner(sessionId)).process(sessionId, signals);
+        } finally {
+            membershipLock.readLock().unlock();
+        }
+    }
+
+    public void closeSession(int sessionId) throws IOException {
+        membershipLock.readLock().lock();
+        try {
+            workers.get(getOwner(sessionId)).close(sessionId);
+            owners.remove(sessionId);
+        } finally {
+            membershipLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        membershipLock.writeLock().lock();
+        try {
+            IOException failure = null;
+            for (CalculatorClient client : workers.values()) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    failure = failure != null ? failure : e;
+                }
+            }
+
+            workers.clear();
+            ring.clear();
+            owners.clear();
+
+            if (failure != null)
+                throw failure;
+        } finally {
+            membershipLock.writeLock().unlock();
+        }
+    }
+
+    // holds the write lock
+    protected void rebalance() throws IOException {
+        List<Integer> sessionIds = new ArrayList<>(owners.keySet());
+        Collections.sort(sessionIds);
+
+        for (int sessionId : sessionIds) {
+            InetSocketAddress from = owners.get(sessionId);
+            InetSocketAddress to = ownerOf(sessionId);
+
+            if (!from.equals(to)) {
+                migrate(sessionId, from, to);
+            }
+        }
+    }
+
+    protected void migrate(int sessionId, InetSocketAddress from, InetSocketAddress to) throws IOException {
+        byte[] encodedSession = workers.get(from).exportSession(sessionId);
+
+        try {
+            workers.get(to).importSession(sessionId, encodedSession);
+        } catch (IOException e) {
+            // the session isn't lost while the previous owner takes it back
+            workers.get(from).importSession(sessionId, encodedSession);
+            throw e;
+        }
+
+        owners.put(sessionId, to);
+        LOGGER.debug("Session {} has been migrated from {} to {}", sessionId, from, to);
+    }
+
+    protected InetSocketAddress ownerOf(int sessionId) {
+        Map.Entry<Integer, InetSocketAddress> entry = ring.ceilingEntry(mix(sessionId));
+
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    private static int virtualNodeHash(InetSocketAddress worker, int virtualNode) {
+        return mix((worker.getHostString() + ":" + worker.getPort() + "#" + virtualNode).hashCode());
+    }
+
+    // murmur3 finalizer, spreads sequential ids over the ring
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+
+        return h;
+    }
+
+}
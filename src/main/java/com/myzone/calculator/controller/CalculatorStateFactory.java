@@ -1,15 +1,22 @@
 package com.myzone.calculator.controller;
 
 import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.EvaluationBudget;
 import com.myzone.calculator.model.Signal;
-import com.myzone.calculator.view.CalculatorView;
+import com.myzone.calculator.view.View;
 import com.myzone.utils.math.BigFraction;
 import com.myzone.utils.BigFractionConverter;
 import com.myzone.utils.Converter;
 import com.myzone.utils.statemachine.State;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import static java.lang.Math.abs;
@@ -23,6 +30,9 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
     protected static final Converter<String, BigFraction> BIG_FRACTION_CONVERTER = new BigFractionConverter(15, pow(10D, 15D), pow(10D, -15D));
 
+    // approximations beyond it are too close to validity thresholds of the model to be trusted
+    private static final double APPROXIMATION_THRESHOLD = pow(10D, 240D);
+
     private static BigFraction parseDouble(@NotNull String s) {
         return BIG_FRACTION_CONVERTER.parse(s);
     }
@@ -37,6 +47,9 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
         return BIG_FRACTION_CONVERTER.render(d).replace("(e-?)\\d\\d\\d+", "$199");
     }
 
+    // display text is rendered lazily, only when somebody reads it
+    private static final Function<BigFraction, String> DISPLAY_RENDERER = CalculatorStateFactory::renderDouble;
+
     private static final Pattern firstPattern = Pattern.compile("^([0-9]+)((\\.)([0-9]*?)0*(e(\\+|\\-)[0-9]{2})?)?$");
     private static final Pattern secondPattern = Pattern.compile("(.*)\\.$");
 
@@ -52,7 +65,12 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
     }
 
     protected final CalculatorModel model;
-    protected final CalculatorView view;
+    protected final View view;
+    protected final Executor exactEvaluationExecutor;
+    protected final PendingResultTracker pendingResultTracker;
+
+    // guarded by model lock
+    private PendingEvaluation pendingEvaluation;
 
     protected final State<Signal> initialState;
     protected final State<Signal> afterDigitInLArg;
@@ -64,9 +82,40 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
     protected final State<Signal> afterEvaluation;
     protected final State<Signal> errorState;
 
-    public CalculatorStateFactory(@NotNull CalculatorModel model, @NotNull CalculatorView view) {
+    protected final List<State<Signal>> states;
+
+    public CalculatorStateFactory(@NotNull CalculatorModel model, @NotNull View view) {
+        this(model, view, null);
+    }
+
+    /**
+     * @param exactEvaluationExecutor enables progressive display: EVALUATE publishes double precision approximation
+     *                                immediately and computes exact result on this executor. Only then CLEAR and
+     *                                CE are able to abandon evaluation in progress, without it every evaluation
+     *                                runs synchronously and they wait for it like any other signal
+     */
+    public CalculatorStateFactory(@NotNull CalculatorModel model, @NotNull View view, @Nullable Executor exactEvaluationExecutor) {
+        this(model, view, exactEvaluationExecutor, null);
+    }
+
+    /**
+     * @param pendingResultTracker keeps result of pending operation up to date while rArg is typed, EVALUATE
+     *                             publishes tracked result instead of evaluating it from scratch
+     */
+    public CalculatorStateFactory(
+            @NotNull CalculatorModel model,
+            @NotNull View view,
+            @Nullable Executor exactEvaluationExecutor,
+            @Nullable PendingResultTracker pendingResultTracker
+    ) {
+        if (exactEvaluationExecutor != null && model.getConcurrencyMode() != CalculatorModel.ConcurrencyMode.BLOCKING)
+            throw new IllegalArgumentException("Progressive display requires blocking calculator model");
+
         this.model = model;
         this.view = view;
+        this.exactEvaluationExecutor = exactEvaluationExecutor;
+        this.pendingResultTracker = pendingResultTracker;
+        this.pendingEvaluation = null;
 
         initialState = new InitialState();
         afterDigitInLArg = new AfterDigitInLArgState();
@@ -77,6 +126,19 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
         afterDotInRArg = new AfterDotInRArgState();
         afterEvaluation = new AfterEvaluationState();
         errorState = new ErrorState();
+
+        // ids are persisted, so new states have to be appended
+        states = Arrays.asList(
+                initialState,
+                afterDigitInLArg,
+                afterDotInLArg,
+                afterSingSelection,
+                afterChangeInRArg,
+                afterDigitInRArg,
+                afterDotInRArg,
+                afterEvaluation,
+                errorState
+        );
     }
 
     @Override
@@ -98,6 +160,51 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
         };
     }
 
+    /**
+     * @return id of the state which is the same for all factories, so it can be stored and resolved by another one
+     */
+    public int getStateId(@NotNull State<Signal> state) {
+        int stateId = states.indexOf(state);
+        if (stateId < 0)
+            throw new IllegalArgumentException(state + " isn't created by this factory");
+
+        return stateId;
+    }
+
+    @NotNull
+    public State<Signal> getState(int stateId) {
+        if (stateId < 0 || stateId >= states.size())
+            throw new IllegalArgumentException("There is no state with id " + stateId);
+
+        return states.get(stateId);
+    }
+
+    /**
+     * Reacts on count consecutive EVALUATE signals exactly as count single reactions do, but repeated operation of
+     * afterEvaluation state is applied at once.
+     *
+     * @return next state
+     */
+    @NotNull
+    public State<Signal> reactOnEvaluations(@NotNull State<Signal> state, int count) {
+        for (; count > 0; count--) {
+            if (state == afterEvaluation && exactEvaluationExecutor == null) {
+                try (CalculatorModel.Session session = model.createSession()) {
+                    if (session.getEvaluationBudget() == EvaluationBudget.UNLIMITED)
+                        return evaluateRepeatedly(session, count);
+                }
+            }
+
+            state = state.react(Signal.EVALUATE);
+
+            // error state ignores EVALUATE
+            if (state == errorState)
+                return errorState;
+        }
+
+        return state;
+    }
+
     protected class InitialState extends LArgState {
 
         public InitialState() {
@@ -106,67 +213,55 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                        if ("0".equals(session.getDisplayText()))
-                            return initialState;
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDigitInLArg;
-
-                    case DOT:
-                        session.setDisplayText("0" + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInLArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        session.setlArg(session.getDisplayData());
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                        return afterSingSelection;
-
-                    case EVALUATE:
-                        if (session.getOperation() != null) {
-                            try {
-                                session.setlArg(session.getOperation().evaluate(session.getDisplayData(), session.getrArg()));
-                                session.setDisplayData(session.getlArg());
-                                session.setDisplayText(renderDouble(session.getDisplayData()));
-                                view.invalidate();
-                                return afterEvaluation;
-                            } catch (Exception e) {
-                                session.setDisplayText("ERR");
-                                view.invalidate();
-                                return errorState;
-                            }
-                        }
-
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return initialState;
-
-                    case BACK_SPACE:
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                    if ("0".equals(session.getDisplayText()))
                         return initialState;
-                }
-
-                return super.react(signal);
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDigitInLArg;
+
+                case DOT:
+                    session.setDisplayText("0" + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDotInLArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    session.setlArg(session.getDisplayData());
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setOperation(CalculatorModel.Operation.bySignal(signal));
+                    return afterSingSelection;
+
+                case EVALUATE:
+                    if (session.getOperation() != null) {
+                        return evaluate(session, session.getDisplayData(), session.getrArg(), true);
+                    }
+
+                    session.setDisplayText(renderDouble(session.getDisplayData()));
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return initialState;
+
+                case BACK_SPACE:
+                    return initialState;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -178,71 +273,59 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDigitInLArg;
-
-                    case DOT:
-                        session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInLArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        session.setlArg(session.getDisplayData());
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                        return afterSingSelection;
-
-                    case EVALUATE:
-                        if (session.getOperation() != null) {
-                            try {
-                                session.setlArg(session.getOperation().evaluate(session.getDisplayData(), session.getrArg()));
-                                session.setDisplayData(session.getlArg());
-                                session.setDisplayText(renderDouble(session.getDisplayData()));
-                                view.invalidate();
-                                return afterEvaluation;
-                            } catch (Exception e) {
-                                session.setDisplayText("ERR");
-                                view.invalidate();
-                                return errorState;
-                            }
-                        }
-
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return initialState;
-
-                    case BACK_SPACE:
-                        session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
-                        if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
-                            session.setDisplayText("0");
-                        }
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return "0".equals(session.getDisplayText()) ? initialState : afterDigitInLArg;
-                }
-
-                return super.react(signal);
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDigitInLArg;
+
+                case DOT:
+                    session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDotInLArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    session.setlArg(session.getDisplayData());
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setOperation(CalculatorModel.Operation.bySignal(signal));
+                    return afterSingSelection;
+
+                case EVALUATE:
+                    if (session.getOperation() != null) {
+                        return evaluate(session, session.getDisplayData(), session.getrArg(), true);
+                    }
+
+                    session.setDisplayText(renderDouble(session.getDisplayData()));
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return initialState;
+
+                case BACK_SPACE:
+                    session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
+                    if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
+                        session.setDisplayText("0");
+                    }
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return "0".equals(session.getDisplayText()) ? initialState : afterDigitInLArg;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -254,78 +337,66 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInLArg;
-
-                    case DOT:
-                        return afterDotInLArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        session.setlArg(session.getDisplayData());
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                        view.invalidate();
-                        return afterSingSelection;
-
-                    case EVALUATE:
-                        if (session.getOperation() != null) {
-                            try {
-                                session.setlArg(session.getOperation().evaluate(session.getDisplayData(), session.getrArg()));
-                                session.setDisplayData(session.getlArg());
-                                session.setDisplayText(renderDouble(session.getDisplayData()));
-                                view.invalidate();
-                                return afterEvaluation;
-                            } catch (Exception e) {
-                                session.setDisplayText("ERR");
-                                view.invalidate();
-                                return errorState;
-                            }
-                        }
-
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return initialState;
-
-                    case BACK_SPACE:
-                        if (session.getDisplayText().charAt(session.getDisplayText().length() - 1) == '.') {
-                            session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
-                            if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
-                                session.setDisplayText("0");
-                            }
-                            session.setDisplayData(parseDouble(session.getDisplayText()));
-                            view.invalidate();
-                            return !session.getDisplayData().equals(BigFraction.ZERO) ? afterDigitInLArg : initialState;
-                        }
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDotInLArg;
+
+                case DOT:
+                    return afterDotInLArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    session.setlArg(session.getDisplayData());
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setOperation(CalculatorModel.Operation.bySignal(signal));
+                    view.invalidate();
+                    return afterSingSelection;
+
+                case EVALUATE:
+                    if (session.getOperation() != null) {
+                        return evaluate(session, session.getDisplayData(), session.getrArg(), true);
+                    }
+
+                    session.setDisplayText(renderDouble(session.getDisplayData()));
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return initialState;
+
+                case BACK_SPACE:
+                    if (session.getDisplayText().charAt(session.getDisplayText().length() - 1) == '.') {
                         session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
-                        if ("0".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
+                        if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
                             session.setDisplayText("0");
                         }
                         session.setDisplayData(parseDouble(session.getDisplayText()));
                         view.invalidate();
-                        return afterDotInLArg;
-                }
-
-                return super.react(signal);
+                        return !session.getDisplayData().equals(BigFraction.ZERO) ? afterDigitInLArg : initialState;
+                    }
+                    session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
+                    if ("0".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
+                        session.setDisplayText("0");
+                    }
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDotInLArg;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -337,62 +408,53 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                        session.setDisplayText(signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterSingSelection;
-
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDigitInRArg;
-
-                    case DOT:
-                        session.setDisplayText("0" + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInRArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                        return afterSingSelection;
-
-                    case EVALUATE:
-                        try {
-                            session.setrArg(session.getDisplayData());
-                            session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getrArg()));
-                            session.setDisplayData(session.getlArg());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterEvaluation;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case BACK_SPACE:
-                        return afterSingSelection;
-                }
-
-                return super.react(signal);
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                    session.setDisplayText(signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterSingSelection;
+
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDigitInRArg;
+
+                case DOT:
+                    session.setDisplayText("0" + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDotInRArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    session.setOperation(CalculatorModel.Operation.bySignal(signal));
+                    return afterSingSelection;
+
+                case EVALUATE:
+                    session.setrArg(session.getDisplayData());
+                    return evaluate(session, session.getlArg(), session.getrArg(), true);
+
+                case BACK_SPACE:
+                    return afterSingSelection;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -404,66 +466,52 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                        session.setDisplayText(signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterSingSelection;
-
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDigitInRArg;
-
-                    case DOT:
-                        session.setDisplayText("0" + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInRArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getDisplayData()));
-                        session.setDisplayData(session.getlArg());
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                        view.invalidate();
-                        return afterSingSelection;
-
-                    case EVALUATE:
-                        try {
-                            session.setrArg(session.getDisplayData());
-                            session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getrArg()));
-                            session.setDisplayData(session.getlArg());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterEvaluation;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case BACK_SPACE:
-                        return afterChangeInRArg;
-                }
-
-                return super.react(signal);
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                    session.setDisplayText(signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterSingSelection;
+
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDigitInRArg;
+
+                case DOT:
+                    session.setDisplayText("0" + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDotInRArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    return chain(session, CalculatorModel.Operation.bySignal(signal));
+
+                case EVALUATE:
+                    session.setrArg(session.getDisplayData());
+                    return evaluate(session, session.getlArg(), session.getrArg(), true);
+
+                case BACK_SPACE:
+                    return afterChangeInRArg;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -475,73 +523,52 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDigitInRArg;
-
-                    case DOT:
-                        session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInRArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        try {
-                            session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getDisplayData()));
-                            session.setDisplayData(session.getlArg());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                            view.invalidate();
-                            return afterSingSelection;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case EVALUATE:
-                        try {
-                            session.setrArg(session.getDisplayData());
-                            session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getrArg()));
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-                        session.setDisplayData(session.getlArg());
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        view.invalidate();
-                        return afterEvaluation;
-
-                    case BACK_SPACE:
-                        session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
-                        if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
-                            session.setDisplayText("0");
-                        }
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return session.getDisplayText().length() < 3 ? initialState : afterDigitInLArg;
-                }
-
-                return super.react(signal);
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDigitInRArg;
+
+                case DOT:
+                    session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDotInRArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    return chain(session, CalculatorModel.Operation.bySignal(signal));
+
+                case EVALUATE:
+                    session.setrArg(session.getDisplayData());
+                    return evaluate(session, session.getlArg(), session.getrArg(), true);
+
+                case BACK_SPACE:
+                    session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
+                    if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
+                        session.setDisplayText("0");
+                    }
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return session.getDisplayText().length() < 3 ? initialState : afterDigitInLArg;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -553,79 +580,58 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInRArg;
-
-                    case DOT:
-                        return afterDotInRArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        try {
-                            session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getDisplayData()));
-                            session.setDisplayData(session.getlArg());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                            view.invalidate();
-                            return afterSingSelection;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case EVALUATE:
-                        try {
-                            session.setrArg(session.getDisplayData());
-                            session.setlArg(session.getOperation().evaluate(session.getlArg(), session.getrArg()));
-                            session.setDisplayData(session.getlArg());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterEvaluation;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case BACK_SPACE:
-                        if (session.getDisplayText().charAt(session.getDisplayText().length() - 1) == '.') {
-                            session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
-                            if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
-                                session.setDisplayText("0");
-                            }
-                            session.setDisplayData(parseDouble(session.getDisplayText()));
-                            view.invalidate();
-                            return !session.getDisplayData().equals(BigFraction.ZERO) ? afterDigitInRArg : afterChangeInRArg;
-                        }
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(session.getDisplayText() + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDotInRArg;
+
+                case DOT:
+                    return afterDotInRArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    return chain(session, CalculatorModel.Operation.bySignal(signal));
+
+                case EVALUATE:
+                    session.setrArg(session.getDisplayData());
+                    return evaluate(session, session.getlArg(), session.getrArg(), true);
+
+                case BACK_SPACE:
+                    if (session.getDisplayText().charAt(session.getDisplayText().length() - 1) == '.') {
                         session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
                         if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
                             session.setDisplayText("0");
                         }
                         session.setDisplayData(parseDouble(session.getDisplayText()));
                         view.invalidate();
-                        return afterDotInRArg;
-                }
-
-                return super.react(signal);
+                        return !session.getDisplayData().equals(BigFraction.ZERO) ? afterDigitInRArg : afterChangeInRArg;
+                    }
+                    session.setDisplayText(session.getDisplayText().substring(0, session.getDisplayText().length() - 1));
+                    if (session.getDisplayText().isEmpty() || "-".equals(session.getDisplayText()) || "-0".equals(session.getDisplayText())) {
+                        session.setDisplayText("0");
+                    }
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    trackPendingResult(session);
+                    view.invalidate();
+                    return afterDotInRArg;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -638,56 +644,45 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case DIGIT_0:
-                    case DIGIT_1:
-                    case DIGIT_2:
-                    case DIGIT_3:
-                    case DIGIT_4:
-                    case DIGIT_5:
-                    case DIGIT_6:
-                    case DIGIT_7:
-                    case DIGIT_8:
-                    case DIGIT_9:
-                        session.setDisplayText(signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDigitInLArg;
-
-                    case DOT:
-                        session.setDisplayText("0" + signal.getRepresentation());
-                        session.setDisplayData(parseDouble(session.getDisplayText()));
-                        view.invalidate();
-                        return afterDotInLArg;
-
-                    case PLUS:
-                    case MINUS:
-                    case MULTIPLY:
-                    case DIVIDE:
-                        session.setlArg(parseDouble(session.getDisplayText()));
-                        session.setOperation(CalculatorModel.Operation.bySignal(signal));
-                        return afterSingSelection;
-
-                    case EVALUATE:
-                        try {
-                            session.setDisplayData(session.getOperation().evaluate(session.getDisplayData(), session.getrArg()));
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterEvaluation;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case BACK_SPACE:
-                        return afterEvaluation;
-                }
-
-                return super.react(signal);
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case DIGIT_0:
+                case DIGIT_1:
+                case DIGIT_2:
+                case DIGIT_3:
+                case DIGIT_4:
+                case DIGIT_5:
+                case DIGIT_6:
+                case DIGIT_7:
+                case DIGIT_8:
+                case DIGIT_9:
+                    session.setDisplayText(signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDigitInLArg;
+
+                case DOT:
+                    session.setDisplayText("0" + signal.getRepresentation());
+                    session.setDisplayData(parseDouble(session.getDisplayText()));
+                    view.invalidate();
+                    return afterDotInLArg;
+
+                case PLUS:
+                case MINUS:
+                case MULTIPLY:
+                case DIVIDE:
+                    session.setlArg(parseDouble(session.getDisplayText()));
+                    session.setOperation(CalculatorModel.Operation.bySignal(signal));
+                    return afterSingSelection;
+
+                case EVALUATE:
+                    return evaluate(session, session.getDisplayData(), session.getrArg(), false);
+
+                case BACK_SPACE:
+                    return afterEvaluation;
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -700,22 +695,14 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case CLEAR:
-                    case CLEAR_EVALUATION:
-                        session.setlArg(BigFraction.ZERO);
-                        session.setrArg(BigFraction.ZERO);
-                        session.setDisplayText("0");
-                        session.setDisplayData(BigFraction.ZERO);
-                        session.setOperation(null);
-                        view.invalidate();
-                        return initialState;
-
-                    default:
-                        return errorState;
-                }
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case CLEAR:
+                case CLEAR_EVALUATION:
+                    return clear(session);
+
+                default:
+                    return errorState;
             }
         }
     }
@@ -728,86 +715,79 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case PERCENT:
-                        session.setDisplayData(session.getlArg().multiply(session.getDisplayData()).divide(BigFraction.valueOf(100)));
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        view.invalidate();
-                        return initialState;
-
-                    case SQUARE_ROOT:
-                        try {
-                            session.setDisplayData(sqrt(session.getDisplayData()));
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return initialState;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case INVERSE:
-                        try {
-                            session.setDisplayData(session.getDisplayData().pow(-1));
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return initialState;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case CLEAR_EVALUATION:
-                        session.setlArg(BigFraction.ZERO);
-                        session.setDisplayText("0");
-                        session.setDisplayData(BigFraction.ZERO);
-                        view.invalidate();
-                        return initialState;
-
-                    case MEMORY_RESTORE:
-                        try {
-                            session.setDisplayData(session.getMemory());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return initialState;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
-
-                    case MEMORY_STORE:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(session.getDisplayData());
-                        view.invalidate();
-                        return initialState;
-
-                    case MEMORY_CLEAR:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(BigFraction.ZERO);
-                        view.invalidate();
-                        return initialState;
-
-                    case MEMORY_PLUS:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(session.getMemory().add(session.getDisplayData()));
-                        view.invalidate();
-                        return initialState;
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case PERCENT:
+                    if (!session.getEvaluationBudget().admitsOperands(session.getlArg(), session.getDisplayData()))
+                        return error(session);
+
+                    session.setDisplayData(session.getlArg().multiply(session.getDisplayData()).divide(BigFraction.valueOf(100)), DISPLAY_RENDERER);
+                    view.invalidate();
+                    return initialState;
+
+                case SQUARE_ROOT:
+                    BigFraction root = sqrt(session.getDisplayData());
+                    if (root == null)
+                        return error(session);
+
+                    session.setDisplayData(root, DISPLAY_RENDERER);
+                    view.invalidate();
+                    return initialState;
+
+                case INVERSE:
+                    BigFraction inverted = inverse(session.getDisplayData());
+                    if (inverted == null)
+                        return error(session);
+
+                    session.setDisplayData(inverted, DISPLAY_RENDERER);
+                    view.invalidate();
+                    return initialState;
+
+                case CLEAR_EVALUATION:
+                    session.setlArg(BigFraction.ZERO);
+                    session.setDisplayText("0");
+                    session.setDisplayData(BigFraction.ZERO);
+                    view.invalidate();
+                    return initialState;
+
+                case MEMORY_RESTORE:
+                    session.setDisplayData(session.getMemory(), DISPLAY_RENDERER);
+                    view.invalidate();
+                    return initialState;
+
+                case MEMORY_STORE:
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setMemory(session.getDisplayData());
+                    view.invalidate();
+                    return initialState;
+
+                case MEMORY_CLEAR:
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setMemory(BigFraction.ZERO);
+                    view.invalidate();
+                    return initialState;
+
+                case MEMORY_PLUS:
+                    if (!admitsMemoryUpdate(session))
+                        return error(session);
+
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.addToMemory(session.getDisplayData());
+                    view.invalidate();
+                    return initialState;
+
+                case MEMORY_MINUS:
+                    if (!admitsMemoryUpdate(session))
+                        return error(session);
+
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.addToMemory(session.getDisplayData().negate());
+                    view.invalidate();
+                    return initialState;
 
-                    case MEMORY_MINUS:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(session.getMemory().subtract(session.getDisplayData()));
-                        view.invalidate();
-                        return initialState;
-
-                }
-
-                return super.react(signal);
             }
+
+            return super.react(signal, session);
         }
     }
 
@@ -819,86 +799,117 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public State<Signal> react(@NotNull Signal signal) {
-            try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case PERCENT:
-                        session.setDisplayData(session.getlArg().multiply(session.getDisplayData()).divide(100));
-                        session.setDisplayText(renderDouble(session.getDisplayData()));
-                        view.invalidate();
-                        return afterChangeInRArg;
-
-                    case SQUARE_ROOT:
-                        try {
-                            session.setDisplayData(sqrt(session.getDisplayData()));
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterChangeInRArg;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
+        protected State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case PERCENT:
+                    if (!session.getEvaluationBudget().admitsOperands(session.getlArg(), session.getDisplayData()))
+                        return error(session);
+
+                    session.setDisplayData(session.getlArg().multiply(session.getDisplayData()).divide(100), DISPLAY_RENDERER);
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case SQUARE_ROOT:
+                    BigFraction root = sqrt(session.getDisplayData());
+                    if (root == null)
+                        return error(session);
+
+                    session.setDisplayData(root, DISPLAY_RENDERER);
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case INVERSE:
+                    BigFraction inverted = inverse(session.getDisplayData());
+                    if (inverted == null)
+                        return error(session);
+
+                    session.setDisplayData(inverted, DISPLAY_RENDERER);
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case CLEAR_EVALUATION:
+                    session.setrArg(BigFraction.ZERO);
+                    session.setDisplayText("0");
+                    session.setDisplayData(BigFraction.ZERO);
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case MEMORY_RESTORE:
+                    session.setDisplayData(session.getMemory(), DISPLAY_RENDERER);
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case MEMORY_STORE:
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setMemory(session.getDisplayData());
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case MEMORY_CLEAR:
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.setMemory(BigFraction.ZERO);
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case MEMORY_PLUS:
+                    if (!admitsMemoryUpdate(session))
+                        return error(session);
+
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.addToMemory(session.getDisplayData());
+                    view.invalidate();
+                    return afterChangeInRArg;
+
+                case MEMORY_MINUS:
+                    if (!admitsMemoryUpdate(session))
+                        return error(session);
+
+                    session.setDisplayText(normalize(session.getDisplayText()));
+                    session.addToMemory(session.getDisplayData().negate());
+                    view.invalidate();
+                    return afterChangeInRArg;
+            }
 
-                    case INVERSE:
-                        try {
-                            session.setDisplayData(session.getDisplayData().pow(-1));
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterChangeInRArg;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
+            return super.react(signal, session);
+        }
+    }
 
-                    case CLEAR_EVALUATION:
-                        session.setrArg(BigFraction.ZERO);
-                        session.setDisplayText("0");
-                        session.setDisplayData(BigFraction.ZERO);
-                        view.invalidate();
-                        return afterChangeInRArg;
-
-                    case MEMORY_RESTORE:
-                        try {
-                            session.setDisplayData(session.getMemory());
-                            session.setDisplayText(renderDouble(session.getDisplayData()));
-                            view.invalidate();
-                            return afterChangeInRArg;
-                        } catch (Exception e) {
-                            session.setDisplayText("ERR");
-                            view.invalidate();
-                            return errorState;
-                        }
+    protected class PendingEvaluation {
 
-                    case MEMORY_STORE:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(session.getDisplayData());
-                        view.invalidate();
-                        return afterChangeInRArg;
+        protected final CompletableFuture<BigFraction> result;
+        protected final boolean storeToLArg;
 
-                    case MEMORY_CLEAR:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(BigFraction.ZERO);
-                        view.invalidate();
-                        return afterChangeInRArg;
+        public PendingEvaluation(
+                @NotNull CalculatorModel.Operation operation,
+                @NotNull BigFraction lArg,
+                @NotNull BigFraction rArg,
+                @NotNull EvaluationBudget budget,
+                boolean storeToLArg
+        ) {
+            this.storeToLArg = storeToLArg;
 
-                    case MEMORY_PLUS:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(session.getMemory().add(session.getDisplayData()));
-                        view.invalidate();
-                        return afterChangeInRArg;
+            result = CompletableFuture.supplyAsync(() -> operation.tryEvaluate(lArg, rArg, budget), exactEvaluationExecutor);
+            result.thenAccept(this::publishIfActual);
+        }
 
-                    case MEMORY_MINUS:
-                        session.setDisplayText(normalize(session.getDisplayText()));
-                        session.setMemory(session.getMemory().subtract(session.getDisplayData()));
-                        view.invalidate();
-                        return afterChangeInRArg;
+        protected void publishIfActual(@Nullable BigFraction exactResult) {
+            try (CalculatorModel.Session session = model.createSession()) {
+                // it's superseded or already taken by the next signal
+                if (pendingEvaluation != this)
+                    return;
+
+                if (exactResult == null) {
+                    // pending evaluation is kept, so the next signal will route to error state
+                    session.setDisplayText("ERR");
+                    view.invalidate();
+                    return;
                 }
 
-                return super.react(signal);
+                pendingEvaluation = null;
+                publishEvaluation(session, exactResult, storeToLArg);
             }
         }
+
     }
 
     protected abstract class AbstractState implements State<Signal> {
@@ -911,47 +922,218 @@ public class CalculatorStateFactory implements State.Factory<Signal> {
 
         @NotNull
         @Override
-        public strictfp State<Signal> react(@NotNull Signal signal) {
+        public State<Signal> react(@NotNull Signal signal) {
+            // the only place where session is opened, nested states receive it explicitly
             try (CalculatorModel.Session session = model.createSession()) {
-                switch (signal) {
-                    case CLEAR:
-                        session.setlArg(BigFraction.ZERO);
-                        session.setrArg(BigFraction.ZERO);
-                        session.setDisplayText("0");
-                        session.setDisplayData(BigFraction.ZERO);
-                        session.setOperation(null);
-                        view.invalidate();
-                        return initialState;
+                // operands of cancelled evaluation are lost, so both CLEAR and CE reset everything
+                if ((signal == Signal.CLEAR || signal == Signal.CLEAR_EVALUATION) && cancelPendingEvaluation())
+                    return clear(session);
 
-                    case REVERSE:
-                        if (!"0".equals(session.getDisplayText())) {
-                            if (session.getDisplayText().startsWith("-")) {
-                                session.setDisplayText(session.getDisplayText().substring(1));
-                            } else {
-                                session.setDisplayText("-" + session.getDisplayText());
-                            }
-                        }
-                        session.setDisplayData(session.getDisplayData().negate());
-                        view.invalidate();
-                        return this;
+                if (!completePendingEvaluation(session)) {
+                    // the same as if EVALUATE had failed right away
+                    return ((AbstractState) errorState).react(signal, session);
                 }
 
-                throw new IllegalStateException(signal + " was not processed");
+                return react(signal, session);
             }
         }
 
+        @NotNull
+        protected strictfp State<Signal> react(@NotNull Signal signal, @NotNull CalculatorModel.Session session) {
+            switch (signal) {
+                case CLEAR:
+                    return clear(session);
+
+                case REVERSE:
+                    if (!"0".equals(session.getDisplayText())) {
+                        if (session.getDisplayText().startsWith("-")) {
+                            session.setDisplayText(session.getDisplayText().substring(1));
+                        } else {
+                            session.setDisplayText("-" + session.getDisplayText());
+                        }
+                    }
+                    session.setDisplayData(session.getDisplayData().negate());
+                    view.invalidate();
+                    return this;
+            }
+
+            throw new IllegalStateException(signal + " was not processed");
+        }
+
         @Override
         public String toString() {
             return name;
         }
     }
 
+    @NotNull
+    protected State<Signal> evaluate(@NotNull CalculatorModel.Session session, @NotNull BigFraction lArg, @NotNull BigFraction rArg, boolean storeToLArg) {
+        return evaluate(session, session.getOperation(), lArg, rArg, storeToLArg, afterEvaluation);
+    }
+
+    /**
+     * Evaluates current operation on lArg and displayed value, then selects the next operation.
+     */
+    @NotNull
+    protected State<Signal> chain(@NotNull CalculatorModel.Session session, @NotNull CalculatorModel.Operation nextOperation) {
+        CalculatorModel.Operation operation = session.getOperation();
+        session.setOperation(nextOperation);
+
+        return evaluate(session, operation, session.getlArg(), session.getDisplayData(), true, afterSingSelection);
+    }
+
+    @NotNull
+    protected State<Signal> evaluate(
+            @NotNull CalculatorModel.Session session,
+            @NotNull CalculatorModel.Operation operation,
+            @NotNull BigFraction lArg,
+            @NotNull BigFraction rArg,
+            boolean storeToLArg,
+            @NotNull State<Signal> nextState
+    ) {
+        if (pendingResultTracker != null) {
+            BigFraction trackedResult = pendingResultTracker.getResult(operation, lArg, rArg);
+            pendingResultTracker.reset();
+
+            if (trackedResult != null) {
+                BigFraction result = operation.tryAccept(lArg, rArg, trackedResult, session.getEvaluationBudget());
+                if (result == null)
+                    return error(session);
+
+                publishEvaluation(session, result, storeToLArg);
+                return nextState;
+            }
+        }
+
+        if (exactEvaluationExecutor != null) {
+            double approximation = operation.approximate(lArg.doubleValue(), rArg.doubleValue());
+
+            if (!Double.isNaN(approximation) && abs(approximation) < APPROXIMATION_THRESHOLD) {
+                pendingEvaluation = new PendingEvaluation(operation, lArg, rArg, session.getEvaluationBudget(), storeToLArg);
+
+                session.setDisplayText(renderDouble(BigFraction.valueOf(new BigDecimal(approximation))));
+                view.invalidate();
+                return nextState;
+            }
+        }
+
+        BigFraction result = operation.tryEvaluate(lArg, rArg, session.getEvaluationBudget());
+        if (result == null)
+            return error(session);
+
+        publishEvaluation(session, result, storeToLArg);
+        return nextState;
+    }
+
+    @NotNull
+    protected State<Signal> evaluateRepeatedly(@NotNull CalculatorModel.Session session, int count) {
+        CalculatorModel.RepeatedEvaluation evaluation = session.getOperation().tryEvaluateRepeatedly(session.getDisplayData(), session.getrArg(), count);
+
+        if (evaluation.getEvaluations() > 0) {
+            publishEvaluation(session, evaluation.getResult(), false);
+        }
+
+        if (evaluation.getEvaluations() < count)
+            return error(session);
+
+        return afterEvaluation;
+    }
+
+    protected void trackPendingResult(@NotNull CalculatorModel.Session session) {
+        if (pendingResultTracker != null) {
+            pendingResultTracker.update(session.getOperation(), session.getlArg(), session.getDisplayData(), session.getEvaluationBudget());
+        }
+    }
+
+    protected void publishEvaluation(@NotNull CalculatorModel.Session session, @NotNull BigFraction result, boolean storeToLArg) {
+        if (storeToLArg) {
+            session.setlArg(result);
+        }
+        session.setDisplayData(result, DISPLAY_RENDERER);
+        view.invalidate();
+    }
+
+    /**
+     * Waits for exact result of progressive evaluation, if any, and publishes it.
+     *
+     * @return false if evaluation has failed
+     */
+    protected boolean completePendingEvaluation(@NotNull CalculatorModel.Session session) {
+        PendingEvaluation evaluation = pendingEvaluation;
+        if (evaluation == null)
+            return true;
+
+        pendingEvaluation = null;
+
+        BigFraction result = evaluation.result.join();
+        if (result == null) {
+            session.setDisplayText("ERR");
+            view.invalidate();
+            return false;
+        }
+
+        publishEvaluation(session, result, evaluation.storeToLArg);
+        return true;
+    }
+
+    /**
+     * Abandons progressive evaluation which is still in progress, its result will be discarded. BigFraction
+     * arithmetic can't be interrupted, so evaluation which has already started keeps its executor thread until
+     * it completes, only the one which hasn't started is never run.
+     *
+     * @return false if there was nothing to cancel
+     */
+    protected boolean cancelPendingEvaluation() {
+        PendingEvaluation evaluation = pendingEvaluation;
+        if (evaluation == null || !evaluation.result.cancel(false))
+            return false;
+
+        pendingEvaluation = null;
+        return true;
+    }
+
+    protected boolean admitsMemoryUpdate(@NotNull CalculatorModel.Session session) {
+        EvaluationBudget budget = session.getEvaluationBudget();
+
+        // unlimited budget doesn't need to read memory, which is expensive when it's shared
+        return budget == EvaluationBudget.UNLIMITED || budget.admitsOperands(session.getMemory(), session.getDisplayData());
+    }
+
+    @NotNull
+    protected State<Signal> clear(@NotNull CalculatorModel.Session session) {
+        session.setlArg(BigFraction.ZERO);
+        session.setrArg(BigFraction.ZERO);
+        session.setDisplayText("0");
+        session.setDisplayData(BigFraction.ZERO);
+        session.setOperation(null);
+        view.invalidate();
+        return initialState;
+    }
+
+    @NotNull
+    protected State<Signal> error(@NotNull CalculatorModel.Session session) {
+        session.setDisplayText("ERR");
+        view.invalidate();
+        return errorState;
+    }
+
+    @Nullable
     private static BigFraction sqrt(BigFraction bigFraction) {
-        return BigFraction.valueOf(
-                new BigDecimal(
-                        Math.sqrt(bigFraction.getNumerator().doubleValue()) / Math.sqrt(bigFraction.getDenominator().doubleValue())
-                )
-        );
+        double root = Math.sqrt(bigFraction.getNumerator().doubleValue()) / Math.sqrt(bigFraction.getDenominator().doubleValue());
+
+        // negative or too big to be represented
+        if (Double.isNaN(root) || Double.isInfinite(root))
+            return null;
+
+        return BigFraction.valueOf(new BigDecimal(root));
+    }
+
+    @Nullable
+    private static BigFraction inverse(BigFraction bigFraction) {
+        if (bigFraction.getNumerator().signum() == 0)
+            return null;
+
+        return bigFraction.pow(-1);
     }
 
 }
\ No newline at end of file
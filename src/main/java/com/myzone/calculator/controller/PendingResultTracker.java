@@ -0,0 +1,110 @@
+package com.myzone.calculator.controller;
+
+import com.myzone.calculator.model.CalculatorModel.Operation;
+import com.myzone.calculator.model.EvaluationBudget;
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps result of pending ADD, SUBTRACT or MULTIPLY up to date while the right argument is being typed. Every
+ * keystroke changes the right argument by a small delta, so the result is corrected by that delta (multiplied
+ * by the left argument for MULTIPLY) instead of being evaluated from scratch, which matters for huge left
+ * arguments.
+ * <p>
+ * Previews aren't metered by the session budget, arguments out of its operand limit just aren't tracked. Budget is
+ * fully applied once the result is accepted on EVALUATE.
+ * <p>
+ * Is used by the state machine thread only, listeners are notified on it.
+ *
+ * @author: myzone
+ * @date: 19.10.26 21:50
+ */
+public class PendingResultTracker {
+
+    protected final List<Consumer<BigFraction>> previewListeners;
+
+    private Operation operation;
+    private BigFraction lArg;
+    private BigFraction rArg;
+    private BigFraction result;
+
+    public PendingResultTracker() {
+        previewListeners = new CopyOnWriteArrayList<>();
+
+        reset();
+    }
+
+    /**
+     * @param previewListener receives up to date result of pending operation or null if it's unknown or invalid
+     */
+    public void addPreviewListener(@NotNull Consumer<BigFraction> previewListener) {
+        previewListeners.add(previewListener);
+    }
+
+    public void removePreviewListener(@NotNull Consumer<BigFraction> previewListener) {
+        previewListeners.remove(previewListener);
+    }
+
+    public void update(@Nullable Operation operation, @NotNull BigFraction lArg, @NotNull BigFraction rArg, @NotNull EvaluationBudget budget) {
+        if (operation == null || operation == Operation.DIVIDE || !budget.fitsOperands(lArg, rArg)) {
+            reset();
+        } else if (result != null && operation == this.operation && lArg == this.lArg) {
+            BigFraction delta = rArg.subtract(this.rArg);
+
+            switch (operation) {
+                case ADD:
+                    result = result.add(delta);
+                    break;
+                case SUBTRACT:
+                    result = result.subtract(delta);
+                    break;
+                case MULTIPLY:
+                    result = result.add(lArg.multiply(delta));
+                    break;
+            }
+            this.rArg = rArg;
+        } else {
+            this.operation = operation;
+            this.lArg = lArg;
+            this.rArg = rArg;
+            this.result = operation.tryEvaluate(lArg, rArg);
+        }
+
+        BigFraction preview = getPreview();
+        for (Consumer<BigFraction> previewListener : previewListeners) {
+            previewListener.accept(preview);
+        }
+    }
+
+    public void reset() {
+        operation = null;
+        lArg = null;
+        rArg = null;
+        result = null;
+    }
+
+    /**
+     * @return unvalidated result, if it's tracked for exactly these arguments
+     */
+    @Nullable
+    public BigFraction getResult(@NotNull Operation operation, @NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        if (result == null || operation != this.operation || lArg != this.lArg || !rArg.equals(this.rArg))
+            return null;
+
+        return result;
+    }
+
+    @Nullable
+    public BigFraction getPreview() {
+        if (result == null || !operation.isValid(result))
+            return null;
+
+        return result;
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.myzone.calculator.controller;
+
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.utils.statemachine.State;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replays recorded signal sequences, each one from the start state of a fresh model. Sequences are kept in a trie,
+ * nodes where sequences branch or end keep snapshot of the model and the state, so the next sequence with the same
+ * prefix resumes from the deepest one of them.
+ * <p>
+ * The trie doesn't grow beyond maxNodes, least recently used snapshots are dropped beyond maxSnapshots.
+ * Isn't thread safe.
+ *
+ * @author: myzone
+ * @date: 20.10.26 00:10
+ */
+public class PrefixSharingReplayer {
+
+    protected final CalculatorModel model;
+    protected final CalculatorStateFactory stateFactory;
+    protected final int maxNodes;
+    protected final int maxSnapshots;
+
+    private final Node root;
+    // access ordered, the eldest node loses its snapshot
+    private final LinkedHashMap<Node, Boolean> snapshotNodes;
+
+    private int nodes;
+    private long replays;
+    private long hits;
+    private long replayedSignals;
+    private long skippedSignals;
+
+    public PrefixSharingReplayer(int maxNodes, int maxSnapshots) {
+        if (maxNodes < 1 || maxSnapshots < 1)
+            throw new IllegalArgumentException("Cache has to keep at least one node and one snapshot");
+
+        this.model = new CalculatorModel();
+        this.stateFactory = new CalculatorStateFactory(model, () -> {
+        });
+        this.maxNodes = maxNodes;
+        this.maxSnapshots = maxSnapshots;
+
+        snapshotNodes = new LinkedHashMap<Node, Boolean>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Node, Boolean> eldest) {
+                if (size() <= PrefixSharingReplayer.this.maxSnapshots)
+                    return false;
+
+                eldest.getKey().snapshot = null;
+                eldest.getKey().state = null;
+                return true;
+            }
+        };
+
+        // root snapshot is never evicted
+        root = new Node();
+        root.state = stateFactory.getStartState();
+        try (CalculatorModel.Session session = model.createSession()) {
+            root.snapshot = session.snapshot();
+        }
+    }
+
+    /**
+     * @return registers of the model after all signals have been processed
+     */
+    @NotNull
+    public CalculatorModel.Snapshot replay(@NotNull Signal... signals) {
+        replays++;
+
+        Node resumeNode = root;
+        int resumeDepth = 0;
+
+        Node node = root;
+        int divergenceDepth = 0;
+        while (divergenceDepth < signals.length) {
+            Node child = node.children.get(signals[divergenceDepth]);
+            if (child == null)
+                break;
+
+            node = child;
+            divergenceDepth++;
+
+            if (node.snapshot != null) {
+                resumeNode = node;
+                resumeDepth = divergenceDepth;
+            }
+        }
+
+        if (resumeNode != root) {
+            hits++;
+            snapshotNodes.get(resumeNode);
+        }
+        skippedSignals += resumeDepth;
+
+        State<Signal> state = resumeNode.state;
+        try (CalculatorModel.Session session = model.createSession()) {
+            session.restore(resumeNode.snapshot);
+
+            if (resumeDepth == signals.length)
+                return resumeNode.snapshot;
+        }
+
+        node = resumeNode;
+        for (int i = resumeDepth; i < signals.length; i++) {
+            state = state.react(signals[i]);
+            replayedSignals++;
+
+            if (node != null) {
+                Node child = node.children.get(signals[i]);
+                if (child == null && nodes < maxNodes) {
+                    child = new Node();
+                    node.children.put(signals[i], child);
+                    nodes++;
+                }
+                node = child;
+            }
+
+            // the sequence branches off or ends here
+            if (node != null && (i + 1 == divergenceDepth || i + 1 == signals.length)) {
+                try (CalculatorModel.Session session = model.createSession()) {
+                    node.snapshot = session.snapshot();
+                    node.state = state;
+                }
+                snapshotNodes.put(node, Boolean.TRUE);
+            }
+        }
+
+        try (CalculatorModel.Session session = model.createSession()) {
+            return session.snapshot();
+        }
+    }
+
+    public long getReplays() {
+        return replays;
+    }
+
+    /**
+     * @return number of replays which have been resumed from a cached prefix
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    public double getHitRate() {
+        return replays != 0 ? (double) hits / replays : 0;
+    }
+
+    public long getReplayedSignals() {
+        return replayedSignals;
+    }
+
+    public long getSkippedSignals() {
+        return skippedSignals;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    public int getSnapshots() {
+        return snapshotNodes.size();
+    }
+
+    protected static class Node {
+
+        protected final Map<Signal, Node> children = new EnumMap<>(Signal.class);
+
+        protected CalculatorModel.Snapshot snapshot;
+        protected State<Signal> state;
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.myzone.calculator.controller;
+
+import com.myzone.calculator.model.Signal;
+import com.myzone.utils.statemachine.State;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Replays recorded signals on the calling thread. Runs of EVALUATE are passed to the factory at once, so repeated
+ * operation isn't applied step by step.
+ *
+ * @author: myzone
+ * @date: 19.10.26 22:40
+ */
+public class SignalReplayer {
+
+    protected final CalculatorStateFactory stateFactory;
+
+    private State<Signal> state;
+
+    public SignalReplayer(@NotNull CalculatorStateFactory stateFactory) {
+        this.stateFactory = stateFactory;
+        this.state = stateFactory.getStartState();
+    }
+
+    public void replay(@NotNull Signal... signals) {
+        int i = 0;
+        while (i < signals.length) {
+            if (signals[i] == Signal.EVALUATE) {
+                int runStart = i;
+                while (i < signals.length && signals[i] == Signal.EVALUATE) {
+                    i++;
+                }
+
+                state = stateFactory.reactOnEvaluations(state, i - runStart);
+            } else {
+                state = state.react(signals[i]);
+                i++;
+            }
+        }
+    }
+
+    public void replay(@NotNull List<Signal> signals) {
+        replay(signals.toArray(new Signal[signals.size()]));
+    }
+
+    @NotNull
+    public State<Signal> getState() {
+        return state;
+    }
+
+}
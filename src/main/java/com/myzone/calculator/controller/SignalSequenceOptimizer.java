@@ -0,0 +1,104 @@
+package com.myzone.calculator.controller;
+
+import com.myzone.calculator.model.Signal;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Rewrites recorded signals, which are replayed from the start state of a fresh model, into shorter sequence with
+ * the same outcome:
+ * <ul>
+ * <li>everything before CLEAR after the last memory modification is dropped</li>
+ * <li>REVERSE REVERSE pairs are dropped</li>
+ * <li>of consecutive operators only the last one is kept, they select operation only once the first one has
+ * been processed</li>
+ * <li>digit BACK_SPACE pairs are dropped while integer lArg is typed after start or CLEAR and the digit fits
+ * into display, other states treat BACK_SPACE irregularly</li>
+ * </ul>
+ *
+ * @author: myzone
+ * @date: 19.10.26 23:20
+ */
+public class SignalSequenceOptimizer {
+
+    protected static final Set<Signal> OPERATORS = EnumSet.of(Signal.PLUS, Signal.MINUS, Signal.MULTIPLY, Signal.DIVIDE);
+    protected static final Set<Signal> MEMORY_MODIFIERS = EnumSet.of(Signal.MEMORY_STORE, Signal.MEMORY_CLEAR, Signal.MEMORY_PLUS, Signal.MEMORY_MINUS);
+    protected static final Set<Signal> DIGITS = EnumSet.range(Signal.DIGIT_0, Signal.DIGIT_9);
+    // model truncates integer display text to it, so more digits are typed but never shown
+    protected static final int DISPLAY_DIGITS = 15;
+
+    /**
+     * What is known about the state machine after a signal.
+     */
+    protected static enum Knowledge {
+        NOTHING,
+        // initialState with "0" displayed
+        CLEARED,
+        // afterDigitInLArg with integer without leading zeros displayed
+        TYPING_INTEGER_LARG
+    }
+
+    @NotNull
+    public Signal[] optimize(@NotNull Signal... signals) {
+        Signal[] result = new Signal[signals.length];
+        Knowledge[] knowledge = new Knowledge[signals.length + 1];
+        // digits displayed while integer lArg is typed
+        int[] digits = new int[signals.length + 1];
+        int size = 0;
+        // signals before it can't be dropped by CLEAR
+        int memoryBarrier = 0;
+
+        knowledge[0] = Knowledge.CLEARED;
+
+        for (Signal signal : signals) {
+            Knowledge current = knowledge[size];
+
+            if (signal == Signal.CLEAR) {
+                size = memoryBarrier;
+            } else if (signal == Signal.REVERSE && size > 0 && result[size - 1] == Signal.REVERSE) {
+                size--;
+                continue;
+            } else if (OPERATORS.contains(signal) && size > 0 && OPERATORS.contains(result[size - 1])) {
+                size--;
+            } else if ((signal == Signal.BACK_SPACE || signal == Signal.DIGIT_0) && current == Knowledge.CLEARED) {
+                // initialState with "0" displayed ignores them
+                continue;
+            } else if (signal == Signal.BACK_SPACE && current == Knowledge.TYPING_INTEGER_LARG && digits[size - 1] < DISPLAY_DIGITS) {
+                // the first digit brings "0" back, as it was before it
+                size--;
+                continue;
+            }
+
+            knowledge[size + 1] = next(knowledge[size], signal);
+            digits[size + 1] = knowledge[size + 1] == Knowledge.TYPING_INTEGER_LARG ? Math.min(digits[size] + 1, DISPLAY_DIGITS) : 0;
+            result[size++] = signal;
+
+            if (MEMORY_MODIFIERS.contains(signal)) {
+                memoryBarrier = size;
+            }
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    @NotNull
+    protected Knowledge next(@NotNull Knowledge current, @NotNull Signal signal) {
+        if (signal == Signal.CLEAR)
+            return Knowledge.CLEARED;
+
+        switch (current) {
+            case CLEARED:
+                return DIGITS.contains(signal) ? Knowledge.TYPING_INTEGER_LARG : Knowledge.NOTHING;
+
+            case TYPING_INTEGER_LARG:
+                return DIGITS.contains(signal) ? Knowledge.TYPING_INTEGER_LARG : Knowledge.NOTHING;
+
+            default:
+                return Knowledge.NOTHING;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.myzone.calculator.model;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk counterparts of {@link CalculatorModel.Operation#ADD} and {@link CalculatorModel.Operation#MULTIPLY}.
+ * Values are combined by a balanced tree on fork/join pool, so operands of each combination have similar sizes
+ * instead of an ever growing one and a small one. Every intermediate and the final result are checked the same
+ * way as results of operations are.
+ *
+ * @author: myzone
+ * @date: 20.10.26 01:40
+ */
+public enum Aggregate {
+    SUM {
+        @Override
+        protected BigFraction identity() {
+            return BigFraction.ZERO;
+        }
+
+        @Override
+        protected BigFraction combine(BigFraction lArg, BigFraction rArg) {
+            return lArg.add(rArg);
+        }
+
+        @Nullable
+        @Override
+        protected BigFraction trySequentially(List<BigFraction> values) {
+            // decimal inputs share few denominators, numerators over the same one are summed without any gcd
+            Map<BigInteger, BigInteger> numerators = new HashMap<>();
+            for (BigFraction value : values) {
+                numerators.merge(value.getDenominator(), value.getNumerator(), BigInteger::add);
+            }
+
+            BigFraction result = BigFraction.ZERO;
+            for (Map.Entry<BigInteger, BigInteger> entry : numerators.entrySet()) {
+                BigFraction group = BigFraction.valueOf(new BigDecimal(entry.getValue())).divide(BigFraction.valueOf(new BigDecimal(entry.getKey())));
+                if (!isValid(group))
+                    return null;
+
+                result = result.add(group);
+                if (!isValid(result))
+                    return null;
+            }
+
+            return result;
+        }
+    },
+    PRODUCT {
+        @Override
+        protected BigFraction identity() {
+            return BigFraction.ONE;
+        }
+
+        @Override
+        protected BigFraction combine(BigFraction lArg, BigFraction rArg) {
+            return lArg.multiply(rArg);
+        }
+    };
+
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    /**
+     * @return null if any intermediate or the final result is out of thresholds
+     */
+    @Nullable
+    public BigFraction tryApply(@NotNull List<BigFraction> values) {
+        return tryApply(values, ForkJoinPool.commonPool());
+    }
+
+    @Nullable
+    public BigFraction tryApply(@NotNull List<BigFraction> values, @NotNull ForkJoinPool pool) {
+        return pool.invoke(new AggregationTask(values));
+    }
+
+    protected abstract BigFraction identity();
+
+    protected abstract BigFraction combine(BigFraction lArg, BigFraction rArg);
+
+    @Nullable
+    protected BigFraction trySequentially(List<BigFraction> values) {
+        return tryTree(values, 0, values.size());
+    }
+
+    @Nullable
+    private BigFraction tryTree(List<BigFraction> values, int from, int to) {
+        if (to - from == 0)
+            return identity();
+
+        if (to - from == 1)
+            return values.get(from);
+
+        int middle = (from + to) >>> 1;
+
+        BigFraction lArg = tryTree(values, from, middle);
+        if (lArg == null)
+            return null;
+
+        BigFraction rArg = tryTree(values, middle, to);
+        if (rArg == null)
+            return null;
+
+        BigFraction result = combine(lArg, rArg);
+        return isValid(result) ? result : null;
+    }
+
+    protected static boolean isValid(BigFraction bigFraction) {
+        return CalculatorModel.Operation.ADD.isValid(bigFraction);
+    }
+
+    protected class AggregationTask extends RecursiveTask<BigFraction> {
+
+        protected final List<BigFraction> values;
+
+        public AggregationTask(List<BigFraction> values) {
+            this.values = values;
+        }
+
+        @Override
+        protected BigFraction compute() {
+            if (values.size() <= SEQUENTIAL_THRESHOLD)
+                return trySequentially(values);
+
+            int middle = values.size() >>> 1;
+
+            AggregationTask right = new AggregationTask(values.subList(middle, values.size()));
+            right.fork();
+
+            BigFraction lArg = new AggregationTask(values.subList(0, middle)).compute();
+            BigFraction rArg = right.join();
+            if (lArg == null || rArg == null)
+                return null;
+
+            BigFraction result = combine(lArg, rArg);
+            return isValid(result) ? result : null;
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.myzone.calculator.model;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Number representation used by {@link CalculatorModel.Operation#tryEvaluate(Object, Object, Arithmetic)}.
+ * It pays off only for callers which keep their values in it, model registers are fractions, so the model itself
+ * doesn't use it. Implementations have to be exact, {@link BigFraction} is the common denominator of all of them.
+ *
+ * @author: myzone
+ * @date: 20.10.26 03:10
+ */
+public interface Arithmetic<N> {
+
+    @NotNull
+    N valueOf(@NotNull BigFraction value);
+
+    @NotNull
+    BigFraction toBigFraction(@NotNull N value);
+
+    @NotNull
+    N add(@NotNull N lArg, @NotNull N rArg);
+
+    @NotNull
+    N subtract(@NotNull N lArg, @NotNull N rArg);
+
+    @NotNull
+    N multiply(@NotNull N lArg, @NotNull N rArg);
+
+    /**
+     * @return null if rArg is zero
+     */
+    @Nullable
+    N divide(@NotNull N lArg, @NotNull N rArg);
+
+    /**
+     * @return the same as {@link CalculatorModel.Operation#isValid} for the equal fraction
+     */
+    boolean isValid(@NotNull N value);
+
+}
@@ -1,26 +1,20 @@
 package com.myzone.calculator.model;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
+import com.myzone.utils.concurrent.BigFractionAdder;
 import com.myzone.utils.math.BigFraction;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Executable;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.math.BigInteger;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.LongSupplier;
-
-import static com.google.common.collect.Collections2.filter;
-import static java.util.Arrays.asList;
+import java.util.function.Function;
 
 /**
  * @author: myzone
@@ -32,43 +26,49 @@ public class CalculatorModel {
     private static final BigFraction MIN_THRESHOLD = BigFraction.TEN.pow(-250);
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CalculatorModel.class);
-    private static final Set<Executable> IGNORED_METHODS = ImmutableSet
-            .<Executable>builder()
-            .addAll(asList(Session.class.getConstructors()))
-            .addAll(filter(asList(Session.class.getMethods()), (method) -> "close".equals(method.getName())))
-            .build();
 
     private static final AtomicLong SESSION_COUNTER = new AtomicLong(0);
 
+    private final ConcurrencyMode concurrencyMode;
+    private final EvaluationBudget evaluationBudget;
     private final Lock lock;
-    private final ThreadLocal<BlockingSession> activeSessions;
-    private final Session proxySession = (Session) Proxy.newProxyInstance(
-            BlockingSession.class.getClassLoader(),
-            new Class[]{Session.class, LongSupplier.class},
-            new InvocationHandler() {
-                @Override
-                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                    if (!IGNORED_METHODS.contains(method)) {
-                        method.setAccessible(true);
-
-                        return method.invoke(activeSessions.get(), args);
-                    }
-
-                    return null;
-                }
-            }
-    );
+    private final ConfinedSession confinedSession;
+    // replaces memory register when it's shared by several models
+    private final BigFractionAdder sharedMemory;
 
     private volatile BigFraction lArg;
     private volatile BigFraction rArg;
     private volatile BigFraction memory;
+    // null while display text hasn't been rendered from renderedDisplayData yet
     private volatile String displayText;
+    private volatile BigFraction renderedDisplayData;
+    private volatile Function<BigFraction, String> displayRenderer;
     private volatile BigFraction displayData;
     private volatile Operation operation;
 
     public CalculatorModel() {
+        this(ConcurrencyMode.BLOCKING);
+    }
+
+    public CalculatorModel(@NotNull ConcurrencyMode concurrencyMode) {
+        this(concurrencyMode, EvaluationBudget.UNLIMITED);
+    }
+
+    public CalculatorModel(@NotNull ConcurrencyMode concurrencyMode, @NotNull EvaluationBudget evaluationBudget) {
+        this(concurrencyMode, evaluationBudget, null);
+    }
+
+    /**
+     * @param sharedMemory memory register shared with other models, M+ and M- don't hold locks of any model while
+     *                     updating it
+     */
+    public CalculatorModel(@NotNull ConcurrencyMode concurrencyMode, @NotNull EvaluationBudget evaluationBudget, @Nullable BigFractionAdder sharedMemory) {
+        this.concurrencyMode = concurrencyMode;
+        this.evaluationBudget = evaluationBudget;
+        this.sharedMemory = sharedMemory;
+
         lock = new ReentrantLock(true);
-        activeSessions = new ThreadLocal<>();
+        confinedSession = new ConfinedSession();
 
         lArg = BigFraction.ZERO;
         rArg = BigFraction.ZERO;
@@ -81,15 +81,30 @@ public class CalculatorModel {
         operation = null;
     }
 
+    /**
+     * Opens a new session holding model lock. Lock is reentrant, so nested sessions opened by the same thread
+     * (e.g. by view while state is reacting) are allowed, but states should pass already opened session
+     * explicitly instead of opening a new one.
+     * <p>
+     * Thread-confined model returns the same session without any locking; with assertions enabled it checks
+     * that the model is accessed only by the thread which has accessed it first.
+     */
     @NotNull
     public Session createSession() {
-        if (activeSessions.get() != null) {
-            return proxySession;
+        if (concurrencyMode == ConcurrencyMode.THREAD_CONFINED) {
+            assert confinedSession.isOwnedByCurrentThread() : "Thread-confined calculator model is accessed by " + Thread.currentThread();
+
+            return confinedSession;
         }
 
         return new BlockingSession();
     }
 
+    @NotNull
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+
     protected BigFraction getlArg() {
         return lArg;
     }
@@ -107,19 +122,56 @@ public class CalculatorModel {
     }
 
     protected BigFraction getMemory() {
+        if (sharedMemory != null)
+            return sharedMemory.sum();
+
         return memory;
     }
 
+    protected boolean isMemoryNonZero() {
+        if (sharedMemory != null)
+            return sharedMemory.isNonZero();
+
+        return memory.getNumerator().signum() != 0;
+    }
+
     protected void setMemory(BigFraction memory) {
+        if (sharedMemory != null) {
+            sharedMemory.set(memory);
+            return;
+        }
+
         this.memory = memory;
     }
 
+    protected void addToMemory(BigFraction value) {
+        if (sharedMemory != null) {
+            sharedMemory.add(value);
+            return;
+        }
+
+        memory = memory.add(value);
+    }
+
     protected String getDisplayText() {
+        String displayText = this.displayText;
+
+        if (displayText == null) {
+            setDisplayText(displayRenderer.apply(renderedDisplayData));
+            displayText = this.displayText;
+        }
+
         return displayText;
     }
 
     protected void setDisplayText(String displayText) {
-        this.displayText = displayText.substring(0, Math.min(
+        this.displayText = truncate(displayText);
+        this.renderedDisplayData = null;
+        this.displayRenderer = null;
+    }
+
+    private static String truncate(String displayText) {
+        return displayText.substring(0, Math.min(
                 15
                         + (StringUtils.countMatches(displayText, "-"))
                         + (displayText.contains("e") ? 5 : 0)
@@ -136,14 +188,56 @@ public class CalculatorModel {
         this.displayData = displayData;
     }
 
+    protected void setDisplayData(BigFraction displayData, Function<BigFraction, String> displayRenderer) {
+        this.displayData = displayData;
+        this.renderedDisplayData = displayData;
+        this.displayRenderer = displayRenderer;
+        this.displayText = null;
+    }
+
     protected Operation getOperation() {
         return operation;
     }
 
+    protected EvaluationBudget getEvaluationBudget() {
+        return evaluationBudget;
+    }
+
     protected void setOperation(Operation operation) {
         this.operation = operation;
     }
 
+    protected Snapshot snapshot() {
+        return new Snapshot(lArg, rArg, getMemory(), displayText, renderedDisplayData, displayRenderer, displayData, operation);
+    }
+
+    /**
+     * Shared memory register isn't restored, it belongs to every model sharing it rather than to this one.
+     */
+    protected void restore(Snapshot snapshot) {
+        lArg = snapshot.lArg;
+        rArg = snapshot.rArg;
+        if (sharedMemory == null) {
+            memory = snapshot.memory;
+        }
+        displayText = snapshot.displayText;
+        renderedDisplayData = snapshot.renderedDisplayData;
+        displayRenderer = snapshot.displayRenderer;
+        displayData = snapshot.displayData;
+        operation = snapshot.operation;
+    }
+
+    public static enum ConcurrencyMode {
+        /**
+         * Every session holds the model lock, default one.
+         */
+        BLOCKING,
+        /**
+         * Model is accessed only by a single thread, so sessions skip locking and bookkeeping entirely.
+         */
+        THREAD_CONFINED
+    }
+
     public static interface Session extends AutoCloseable {
 
         BigFraction getlArg();
@@ -158,6 +252,16 @@ public class CalculatorModel {
 
         public void setMemory(BigFraction memory);
 
+        /**
+         * Cheap check for the memory flag, doesn't sum the shared memory register unless it has changed.
+         */
+        public boolean isMemoryNonZero();
+
+        /**
+         * Unlike get and set, doesn't read the whole shared memory register.
+         */
+        public void addToMemory(BigFraction value);
+
         public String getDisplayText();
 
         void setDisplayText(String displayText);
@@ -166,42 +270,30 @@ public class CalculatorModel {
 
         void setDisplayData(BigFraction displayData);
 
+        /**
+         * Sets display data and makes display text to be rendered from it by displayRenderer on first read.
+         */
+        void setDisplayData(BigFraction displayData, Function<BigFraction, String> displayRenderer);
+
         Operation getOperation();
 
         void setOperation(Operation operation);
 
-        @Override
-        void close();
+        EvaluationBudget getEvaluationBudget();
 
-    }
+        /**
+         * @return immutable copy of all registers, display text stays unrendered if it hasn't been rendered yet
+         */
+        Snapshot snapshot();
 
-    protected class BlockingSession implements Session {
+        void restore(Snapshot snapshot);
 
-        private final long id;
-
-        public BlockingSession() {
-            CalculatorModel.this.lock.lock();
-            CalculatorModel.this.activeSessions.set(this);
+        @Override
+        void close();
 
-            id = SESSION_COUNTER.incrementAndGet();
+    }
 
-            LOGGER.info(
-                    "Calculator model session {} has been opened with "
-                            + "lArg: {}, "
-                            + "rArg: {}, "
-                            + "memory: {}, "
-                            + "displayText: '{}', "
-                            + "displayData: {}, "
-                            + "operation: {}",
-                    id,
-                    lArg,
-                    rArg,
-                    memory,
-                    displayText,
-                    displayData,
-                    operation
-            );
-        }
+    protected abstract class AbstractSession implements Session {
 
         @Override
         public BigFraction getlArg() {
@@ -233,6 +325,16 @@ public class CalculatorModel {
             CalculatorModel.this.setMemory(memory);
         }
 
+        @Override
+        public boolean isMemoryNonZero() {
+            return CalculatorModel.this.isMemoryNonZero();
+        }
+
+        @Override
+        public void addToMemory(BigFraction value) {
+            CalculatorModel.this.addToMemory(value);
+        }
+
         @Override
         public String getDisplayText() {
             return CalculatorModel.this.getDisplayText();
@@ -253,6 +355,11 @@ public class CalculatorModel {
             CalculatorModel.this.setDisplayData(displayData);
         }
 
+        @Override
+        public void setDisplayData(BigFraction displayData, Function<BigFraction, String> displayRenderer) {
+            CalculatorModel.this.setDisplayData(displayData, displayRenderer);
+        }
+
         @Override
         public Operation getOperation() {
             return CalculatorModel.this.getOperation();
@@ -263,26 +370,75 @@ public class CalculatorModel {
             CalculatorModel.this.setOperation(operation);
         }
 
+        @Override
+        public EvaluationBudget getEvaluationBudget() {
+            return CalculatorModel.this.getEvaluationBudget();
+        }
+
+        @Override
+        public Snapshot snapshot() {
+            return CalculatorModel.this.snapshot();
+        }
+
+        @Override
+        public void restore(Snapshot snapshot) {
+            CalculatorModel.this.restore(snapshot);
+        }
+
+    }
+
+    protected class BlockingSession extends AbstractSession {
+
+        private final long id;
+
+        public BlockingSession() {
+            CalculatorModel.this.lock.lock();
+
+            id = SESSION_COUNTER.incrementAndGet();
+
+            // display text may be not rendered yet, so it's rendered for debugging only
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(
+                        "Calculator model session {} has been opened with "
+                                + "lArg: {}, "
+                                + "rArg: {}, "
+                                + "memory: {}, "
+                                + "displayText: '{}', "
+                                + "displayData: {}, "
+                                + "operation: {}",
+                        id,
+                        lArg,
+                        rArg,
+                        memory,
+                        getDisplayText(),
+                        displayData,
+                        operation
+                );
+            }
+        }
+
         @Override
         public void close() {
-            LOGGER.info(
-                    "Calculator model session {} has been closed with "
-                            + "lArg: {}, "
-                            + "rArg: {}, "
-                            + "memory: {}, "
-                            + "displayText: '{}', "
-                            + "displayData: {}, "
-                            + "operation: {}",
-                    id,
-                    lArg,
-                    rArg,
-                    memory,
-                    displayText,
-                    displayData,
-                    operation
-            );
-
-            CalculatorModel.this.activeSessions.remove();
+            // display text may be not rendered yet, so it's rendered for debugging only
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(
+                        "Calculator model session {} has been closed with "
+                                + "lArg: {}, "
+                                + "rArg: {}, "
+                                + "memory: {}, "
+                                + "displayText: '{}', "
+                                + "displayData: {}, "
+                                + "operation: {}",
+                        id,
+                        lArg,
+                        rArg,
+                        memory,
+                        getDisplayText(),
+                        displayData,
+                        operation
+                );
+            }
+
             CalculatorModel.this.lock.unlock();
         }
 
@@ -303,49 +459,143 @@ public class CalculatorModel {
 
     }
 
+    /**
+     * Session of {@link ConcurrencyMode#THREAD_CONFINED} model, it doesn't lock anything.
+     */
+    protected class ConfinedSession extends AbstractSession {
+
+        // is used only when assertions are enabled
+        private Thread owner;
+
+        @Override
+        public void close() {
+        }
+
+        protected boolean isOwnedByCurrentThread() {
+            if (owner == null) {
+                owner = Thread.currentThread();
+            }
+
+            return owner == Thread.currentThread();
+        }
+
+    }
+
     public static enum Operation {
         ADD {
             @Override
-            public strictfp BigFraction evaluate(BigFraction lArg, BigFraction rArg) {
-                BigFraction result = lArg.add(rArg);
+            public strictfp double approximate(double lArg, double rArg) {
+                return lArg + rArg;
+            }
+
+            @Override
+            protected strictfp BigFraction apply(BigFraction lArg, BigFraction rArg) {
+                return lArg.add(rArg);
+            }
+
+            @Override
+            protected <N> N apply(N lArg, N rArg, Arithmetic<N> arithmetic) {
+                return arithmetic.add(lArg, rArg);
+            }
 
-                if (!isValid(result))
-                    throw new ArithmeticException();
+            @Override
+            protected int safeRepetitions(BigFraction lArg, BigFraction rArg) {
+                return safeSummations(lArg, rArg);
+            }
 
-                return result;
+            @Override
+            protected BigFraction applyRepeatedly(BigFraction lArg, BigFraction rArg, int count) {
+                return lArg.add(rArg.multiply(BigFraction.valueOf(count)));
             }
         },
         SUBTRACT {
             @Override
-            public strictfp BigFraction evaluate(BigFraction lArg, BigFraction rArg) {
-                BigFraction result = lArg.subtract(rArg);
+            public strictfp double approximate(double lArg, double rArg) {
+                return lArg - rArg;
+            }
+
+            @Override
+            protected strictfp BigFraction apply(BigFraction lArg, BigFraction rArg) {
+                return lArg.subtract(rArg);
+            }
 
-                if (!isValid(result))
-                    throw new ArithmeticException();
+            @Override
+            protected <N> N apply(N lArg, N rArg, Arithmetic<N> arithmetic) {
+                return arithmetic.subtract(lArg, rArg);
+            }
 
-                return result;
+            @Override
+            protected int safeRepetitions(BigFraction lArg, BigFraction rArg) {
+                return safeSummations(lArg, rArg);
+            }
+
+            @Override
+            protected BigFraction applyRepeatedly(BigFraction lArg, BigFraction rArg, int count) {
+                return lArg.subtract(rArg.multiply(BigFraction.valueOf(count)));
             }
         },
         MULTIPLY {
             @Override
-            public strictfp BigFraction evaluate(BigFraction lArg, BigFraction rArg) {
-                BigFraction result = lArg.multiply(rArg);
+            public strictfp double approximate(double lArg, double rArg) {
+                return lArg * rArg;
+            }
+
+            @Override
+            protected strictfp BigFraction apply(BigFraction lArg, BigFraction rArg) {
+                return lArg.multiply(rArg);
+            }
+
+            @Override
+            protected <N> N apply(N lArg, N rArg, Arithmetic<N> arithmetic) {
+                return arithmetic.multiply(lArg, rArg);
+            }
 
-                if (!isValid(result))
-                    throw new ArithmeticException();
+            @Override
+            protected int safeRepetitions(BigFraction lArg, BigFraction rArg) {
+                return safeProducts(lArg, rArg);
+            }
+
+            @Override
+            protected BigFraction applyRepeatedly(BigFraction lArg, BigFraction rArg, int count) {
+                if (isTrivialFactor(lArg, rArg))
+                    return scaleTrivially(lArg, rArg, count);
 
-                return result;
+                return lArg.multiply(rArg.pow(count));
             }
         },
         DIVIDE {
             @Override
-            public strictfp BigFraction evaluate(BigFraction lArg, BigFraction rArg) {
-                BigFraction result = lArg.divide(rArg);
+            public strictfp double approximate(double lArg, double rArg) {
+                return lArg / rArg;
+            }
 
-                if (!isValid(result))
-                    throw new ArithmeticException();
+            @Override
+            protected strictfp BigFraction apply(BigFraction lArg, BigFraction rArg) {
+                if (rArg.getNumerator().signum() == 0)
+                    return null;
 
-                return result;
+                return lArg.divide(rArg);
+            }
+
+            @Override
+            protected <N> N apply(N lArg, N rArg, Arithmetic<N> arithmetic) {
+                return arithmetic.divide(lArg, rArg);
+            }
+
+            @Override
+            protected int safeRepetitions(BigFraction lArg, BigFraction rArg) {
+                if (rArg.getNumerator().signum() == 0)
+                    return 0;
+
+                return safeProducts(lArg, BigFraction.ONE.divide(rArg));
+            }
+
+            @Override
+            protected BigFraction applyRepeatedly(BigFraction lArg, BigFraction rArg, int count) {
+                if (isTrivialFactor(lArg, rArg))
+                    return scaleTrivially(lArg, rArg, count);
+
+                return lArg.divide(rArg.pow(count));
             }
         };
 
@@ -361,9 +611,190 @@ public class CalculatorModel {
             return signalOperationMap.get(signal);
         }
 
-        public abstract BigFraction evaluate(BigFraction lArg, BigFraction rArg);
+        public BigFraction evaluate(BigFraction lArg, BigFraction rArg) {
+            BigFraction result = tryEvaluate(lArg, rArg);
+
+            if (result == null)
+                throw new ArithmeticException();
+
+            return result;
+        }
 
-        protected boolean isValid(BigFraction bigFraction) {
+        /**
+         * Exception-free version of {@link #evaluate(BigFraction, BigFraction)}, errors are common enough
+         * to not pay for stack trace capturing.
+         *
+         * @return null if result is undefined or out of thresholds
+         */
+        @Nullable
+        public BigFraction tryEvaluate(BigFraction lArg, BigFraction rArg) {
+            return tryEvaluate(lArg, rArg, EvaluationBudget.UNLIMITED);
+        }
+
+        /**
+         * @return null if result is undefined, out of thresholds or evaluation doesn't fit into the budget
+         */
+        @Nullable
+        public BigFraction tryEvaluate(BigFraction lArg, BigFraction rArg, @NotNull EvaluationBudget budget) {
+            if (!budget.admitsOperands(lArg, rArg))
+                return null;
+
+            long evaluationStart = budget.startEvaluation();
+            BigFraction result = apply(lArg, rArg);
+
+            if (!budget.admitsEvaluationTime(evaluationStart))
+                return null;
+
+            // operands have been admitted already, unlike in tryAccept
+            if (result == null || !isValid(result) || !budget.admitsRetained(lArg, rArg, result))
+                return null;
+
+            return result;
+        }
+
+        /**
+         * Evaluates on values of another arithmetic backend, without any budget.
+         *
+         * @return null if result is undefined or out of thresholds
+         */
+        @Nullable
+        public <N> N tryEvaluate(@NotNull N lArg, @NotNull N rArg, @NotNull Arithmetic<N> arithmetic) {
+            N result = apply(lArg, rArg, arithmetic);
+            if (result == null || !arithmetic.isValid(result))
+                return null;
+
+            return result;
+        }
+
+        /**
+         * Validates result which has been computed elsewhere the same way as {@link #tryEvaluate} does.
+         *
+         * @return null if result is undefined, out of thresholds or doesn't fit into the budget
+         */
+        @Nullable
+        public BigFraction tryAccept(BigFraction lArg, BigFraction rArg, @Nullable BigFraction result, @NotNull EvaluationBudget budget) {
+            if (result == null || !isValid(result))
+                return null;
+
+            if (!budget.admitsOperands(lArg, rArg) || !budget.admitsRetained(lArg, rArg, result))
+                return null;
+
+            return result;
+        }
+
+        /**
+         * Cheap double precision estimation of the result, may be infinite or NaN.
+         */
+        public abstract double approximate(double lArg, double rArg);
+
+        /**
+         * Does the same as count sequential {@link #tryEvaluate} calls, each one taking result of the previous as lArg,
+         * like repeated EVALUATE does. Runs of steps which are known to stay within thresholds are computed at once,
+         * so the first failed step is the same as with sequential evaluation.
+         */
+        @NotNull
+        public RepeatedEvaluation tryEvaluateRepeatedly(BigFraction lArg, BigFraction rArg, int count) {
+            BigFraction result = lArg;
+            int evaluations = 0;
+
+            while (evaluations < count) {
+                int safeEvaluations = Math.min(safeRepetitions(result, rArg), count - evaluations);
+
+                if (safeEvaluations > 1) {
+                    result = applyRepeatedly(result, rArg, safeEvaluations);
+                    evaluations += safeEvaluations;
+                } else {
+                    BigFraction next = tryEvaluate(result, rArg);
+                    if (next == null)
+                        break;
+
+                    result = next;
+                    evaluations++;
+                }
+            }
+
+            return new RepeatedEvaluation(result, evaluations);
+        }
+
+        /**
+         * @return null if result is undefined
+         */
+        @Nullable
+        protected abstract BigFraction apply(BigFraction lArg, BigFraction rArg);
+
+        /**
+         * @return null if result is undefined
+         */
+        @Nullable
+        protected abstract <N> N apply(N lArg, N rArg, Arithmetic<N> arithmetic);
+
+        /**
+         * @return number of repetitions which are guaranteed to produce valid results
+         */
+        protected abstract int safeRepetitions(BigFraction lArg, BigFraction rArg);
+
+        protected abstract BigFraction applyRepeatedly(BigFraction lArg, BigFraction rArg, int count);
+
+        private static int safeSummations(BigFraction lArg, BigFraction rArg) {
+            // every sum can be written over lcm of denominators, so it bounds all denominators
+            BigInteger lcm = lArg.getDenominator().divide(lArg.getDenominator().gcd(rArg.getDenominator())).multiply(rArg.getDenominator()).abs();
+            if (lcm.compareTo(MIN_THRESHOLD.getDenominator()) >= 0)
+                return 0;
+
+            if (rArg.getNumerator().signum() == 0)
+                return Integer.MAX_VALUE;
+
+            // and numerator of i-th sum isn't greater than lNumerator + i * rNumerator
+            BigInteger lNumerator = lArg.getNumerator().abs().multiply(lcm.divide(lArg.getDenominator().abs()));
+            BigInteger rNumerator = rArg.getNumerator().abs().multiply(lcm.divide(rArg.getDenominator().abs()));
+            BigInteger headroom = MAX_THRESHOLD.getNumerator().subtract(BigInteger.ONE).subtract(lNumerator);
+            if (headroom.signum() < 0)
+                return 0;
+
+            return headroom.divide(rNumerator).min(BigInteger.valueOf(Integer.MAX_VALUE)).intValue();
+        }
+
+        /**
+         * Zero lArg and unit factors are repeated without limit, so their power mustn't be computed.
+         */
+        private static boolean isTrivialFactor(BigFraction lArg, BigFraction factor) {
+            return lArg.getNumerator().signum() == 0
+                    || (factor.getNumerator().abs().equals(BigInteger.ONE) && factor.getDenominator().abs().equals(BigInteger.ONE));
+        }
+
+        /**
+         * @return lArg multiplied or divided count times by trivial factor
+         */
+        private static BigFraction scaleTrivially(BigFraction lArg, BigFraction factor, int count) {
+            if (lArg.getNumerator().signum() == 0 || factor.getNumerator().signum() == factor.getDenominator().signum() || count % 2 == 0)
+                return lArg;
+
+            return lArg.negate();
+        }
+
+        private static int safeProducts(BigFraction lArg, BigFraction factor) {
+            BigInteger numerator = factor.getNumerator().abs();
+            BigInteger denominator = factor.getDenominator().abs();
+
+            if (lArg.getNumerator().signum() == 0 || (numerator.compareTo(BigInteger.ONE) <= 0 && denominator.equals(BigInteger.ONE)))
+                return Integer.MAX_VALUE;
+
+            // reduction can only make numerator and denominator of i-th product smaller than these bounds
+            BigInteger numeratorBound = lArg.getNumerator().abs();
+            BigInteger denominatorBound = lArg.getDenominator().abs();
+            int count = 0;
+            while (true) {
+                numeratorBound = numeratorBound.multiply(numerator);
+                denominatorBound = denominatorBound.multiply(denominator);
+
+                if (numeratorBound.compareTo(MAX_THRESHOLD.getNumerator()) >= 0 || denominatorBound.compareTo(MIN_THRESHOLD.getDenominator()) >= 0)
+                    return count;
+
+                count++;
+            }
+        }
+
+        public boolean isValid(BigFraction bigFraction) {
             if (bigFraction.abs().getNumerator().compareTo(MAX_THRESHOLD.getNumerator()) >= 0)
                 return false;
 
@@ -374,4 +805,100 @@ public class CalculatorModel {
         }
     }
 
+    public static final class Snapshot {
+
+        private final BigFraction lArg;
+        private final BigFraction rArg;
+        private final BigFraction memory;
+        private final String displayText;
+        private final BigFraction renderedDisplayData;
+        private final Function<BigFraction, String> displayRenderer;
+        private final BigFraction displayData;
+        private final Operation operation;
+
+        protected Snapshot(
+                BigFraction lArg,
+                BigFraction rArg,
+                BigFraction memory,
+                String displayText,
+                BigFraction renderedDisplayData,
+                Function<BigFraction, String> displayRenderer,
+                BigFraction displayData,
+                Operation operation
+        ) {
+            this.lArg = lArg;
+            this.rArg = rArg;
+            this.memory = memory;
+            this.displayText = displayText;
+            this.renderedDisplayData = renderedDisplayData;
+            this.displayRenderer = displayRenderer;
+            this.displayData = displayData;
+            this.operation = operation;
+        }
+
+        /**
+         * Creates snapshot of registers kept outside of any model, e.g. persisted ones.
+         */
+        @NotNull
+        public static Snapshot of(
+                @NotNull BigFraction lArg,
+                @NotNull BigFraction rArg,
+                @NotNull BigFraction memory,
+                @NotNull String displayText,
+                @NotNull BigFraction displayData,
+                @Nullable Operation operation
+        ) {
+            return new Snapshot(lArg, rArg, memory, displayText, null, null, displayData, operation);
+        }
+
+        public BigFraction getlArg() {
+            return lArg;
+        }
+
+        public BigFraction getrArg() {
+            return rArg;
+        }
+
+        public BigFraction getMemory() {
+            return memory;
+        }
+
+        public String getDisplayText() {
+            return displayText != null ? displayText : truncate(displayRenderer.apply(renderedDisplayData));
+        }
+
+        public BigFraction getDisplayData() {
+            return displayData;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+    }
+
+    public static final class RepeatedEvaluation {
+
+        private final BigFraction result;
+        private final int evaluations;
+
+        public RepeatedEvaluation(@NotNull BigFraction result, int evaluations) {
+            this.result = result;
+            this.evaluations = evaluations;
+        }
+
+        /**
+         * @return result of the last succeeded evaluation or initial lArg if the first one has failed
+         */
+        @NotNull
+        public BigFraction getResult() {
+            return result;
+        }
+
+        public int getEvaluations() {
+            return evaluations;
+        }
+
+    }
+
 }
@@ -0,0 +1,151 @@
+package com.myzone.calculator.model;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits resources a single calculator session may spend on one evaluation. Bit length of operands and of
+ * the expected result is checked before arithmetic starts, so pathological growth is stopped before it costs
+ * anything. BigInteger arithmetic can't be interrupted, so CPU time and retained bytes are checked right after
+ * it and violating result is discarded.
+ *
+ * @author: myzone
+ * @date: 19.10.26 21:05
+ */
+public class EvaluationBudget {
+
+    public static final EvaluationBudget UNLIMITED = new EvaluationBudget(Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    protected final int maxOperandBitLength;
+    protected final long maxRetainedBytes;
+    protected final long maxEvaluationNanos;
+
+    protected final LongAdder operandBitLengthExhaustions;
+    protected final LongAdder retainedBytesExhaustions;
+    protected final LongAdder evaluationTimeExhaustions;
+
+    /**
+     * @param maxOperandBitLength summary bit length of numerator and denominator of any operand or result
+     * @param maxRetainedBytes    bytes occupied by operands and result of an evaluation together
+     * @param maxEvaluationNanos  CPU time of an evaluation, wall-clock time if CPU time isn't supported by JVM
+     */
+    public EvaluationBudget(int maxOperandBitLength, long maxRetainedBytes, long maxEvaluationNanos) {
+        if (maxOperandBitLength <= 0 || maxRetainedBytes <= 0 || maxEvaluationNanos <= 0)
+            throw new IllegalArgumentException("Budget limits should be positive");
+
+        this.maxOperandBitLength = maxOperandBitLength;
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.maxEvaluationNanos = maxEvaluationNanos;
+
+        operandBitLengthExhaustions = new LongAdder();
+        retainedBytesExhaustions = new LongAdder();
+        evaluationTimeExhaustions = new LongAdder();
+    }
+
+    /**
+     * Checks operands and upper bound of the result of any of {@link CalculatorModel.Operation}s on them.
+     */
+    public boolean admitsOperands(@NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        if (fitsOperands(lArg, rArg))
+            return true;
+
+        operandBitLengthExhaustions.increment();
+        return false;
+    }
+
+    /**
+     * Does the same check as {@link #admitsOperands} without counting an exhaustion, for speculative evaluations
+     * the session hasn't asked for.
+     */
+    public boolean fitsOperands(@NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        if (this == UNLIMITED)
+            return true;
+
+        return bitLength(lArg) + bitLength(rArg) + 1 <= maxOperandBitLength;
+    }
+
+    public boolean admitsRetained(@NotNull BigFraction... values) {
+        if (this == UNLIMITED)
+            return true;
+
+        long retainedBytes = 0;
+        for (BigFraction value : values) {
+            retainedBytes += bitLength(value) / Byte.SIZE + 1;
+        }
+
+        if (retainedBytes > maxRetainedBytes) {
+            retainedBytesExhaustions.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return mark to be passed to {@link #admitsEvaluationTime(long)}
+     */
+    public long startEvaluation() {
+        if (this == UNLIMITED)
+            return 0;
+
+        return currentTimeNanos();
+    }
+
+    public boolean admitsEvaluationTime(long evaluationStart) {
+        if (this == UNLIMITED)
+            return true;
+
+        if (currentTimeNanos() - evaluationStart > maxEvaluationNanos) {
+            evaluationTimeExhaustions.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    public int getMaxOperandBitLength() {
+        return maxOperandBitLength;
+    }
+
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    public long getMaxEvaluationNanos() {
+        return maxEvaluationNanos;
+    }
+
+    public long getOperandBitLengthExhaustions() {
+        return operandBitLengthExhaustions.sum();
+    }
+
+    public long getRetainedBytesExhaustions() {
+        return retainedBytesExhaustions.sum();
+    }
+
+    public long getEvaluationTimeExhaustions() {
+        return evaluationTimeExhaustions.sum();
+    }
+
+    public long getExhaustions() {
+        return getOperandBitLengthExhaustions() + getRetainedBytesExhaustions() + getEvaluationTimeExhaustions();
+    }
+
+    private static long bitLength(BigFraction value) {
+        return (long) value.getNumerator().bitLength() + value.getDenominator().bitLength();
+    }
+
+    private static long currentTimeNanos() {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported())
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+
+        return System.nanoTime();
+    }
+
+}
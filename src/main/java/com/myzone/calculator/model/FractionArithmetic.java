@@ -0,0 +1,61 @@
+package com.myzone.calculator.model;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Default backend, the same arithmetic operations use on their own.
+ *
+ * @author: myzone
+ * @date: 20.10.26 03:15
+ */
+public class FractionArithmetic implements Arithmetic<BigFraction> {
+
+    public static final FractionArithmetic INSTANCE = new FractionArithmetic();
+
+    @NotNull
+    @Override
+    public BigFraction valueOf(@NotNull BigFraction value) {
+        return value;
+    }
+
+    @NotNull
+    @Override
+    public BigFraction toBigFraction(@NotNull BigFraction value) {
+        return value;
+    }
+
+    @NotNull
+    @Override
+    public BigFraction add(@NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        return lArg.add(rArg);
+    }
+
+    @NotNull
+    @Override
+    public BigFraction subtract(@NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        return lArg.subtract(rArg);
+    }
+
+    @NotNull
+    @Override
+    public BigFraction multiply(@NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        return lArg.multiply(rArg);
+    }
+
+    @Nullable
+    @Override
+    public BigFraction divide(@NotNull BigFraction lArg, @NotNull BigFraction rArg) {
+        if (rArg.getNumerator().signum() == 0)
+            return null;
+
+        return lArg.divide(rArg);
+    }
+
+    @Override
+    public boolean isValid(@NotNull BigFraction value) {
+        return CalculatorModel.Operation.ADD.isValid(value);
+    }
+
+}
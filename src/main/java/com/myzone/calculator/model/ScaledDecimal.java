@@ -0,0 +1,111 @@
+package com.myzone.calculator.model;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Value of {@link ScaledDecimalArithmetic}: unscaled integer with a scale while it's a finite decimal, and a
+ * fraction only after a quotient which isn't.
+ *
+ * @author: myzone
+ * @date: 20.10.26 03:20
+ */
+public final class ScaledDecimal {
+
+    private final BigDecimal decimal;
+    private final BigFraction fraction;
+
+    private ScaledDecimal(BigDecimal decimal, BigFraction fraction) {
+        this.decimal = decimal;
+        this.fraction = fraction;
+    }
+
+    @NotNull
+    public static ScaledDecimal valueOf(@NotNull BigDecimal decimal) {
+        return new ScaledDecimal(decimal, null);
+    }
+
+    /**
+     * @return decimal form if the fraction is a finite decimal
+     */
+    @NotNull
+    public static ScaledDecimal valueOf(@NotNull BigFraction fraction) {
+        BigDecimal decimal = toDecimal(fraction);
+
+        return decimal != null ? new ScaledDecimal(decimal, null) : new ScaledDecimal(null, fraction);
+    }
+
+    public boolean isDecimal() {
+        return decimal != null;
+    }
+
+    /**
+     * @return null if it isn't a finite decimal
+     */
+    @Nullable
+    public BigDecimal getDecimal() {
+        return decimal;
+    }
+
+    @NotNull
+    public BigFraction toBigFraction() {
+        return fraction != null ? fraction : BigFraction.valueOf(decimal);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ScaledDecimal))
+            return false;
+
+        ScaledDecimal that = (ScaledDecimal) o;
+        if (decimal != null && that.decimal != null)
+            return decimal.compareTo(that.decimal) == 0;
+
+        return toBigFraction().equals(that.toBigFraction());
+    }
+
+    @Override
+    public int hashCode() {
+        return toBigFraction().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return decimal != null ? decimal.toPlainString() : fraction.toString();
+    }
+
+    @Nullable
+    private static BigDecimal toDecimal(BigFraction fraction) {
+        BigInteger denominator = fraction.getDenominator().abs();
+
+        // finite decimal iff denominator is 2^twos * 5^fives
+        int twos = denominator.getLowestSetBit();
+        BigInteger rest = denominator.shiftRight(twos);
+
+        int fives = 0;
+        BigInteger five = BigInteger.valueOf(5);
+        while (!rest.equals(BigInteger.ONE)) {
+            BigInteger[] quotientAndRemainder = rest.divideAndRemainder(five);
+            if (quotientAndRemainder[1].signum() != 0)
+                return null;
+
+            rest = quotientAndRemainder[0];
+            fives++;
+        }
+
+        // n / (2^twos * 5^fives) = n * 2^(scale - twos) * 5^(scale - fives) / 10^scale
+        int scale = Math.max(twos, fives);
+        BigInteger unscaled = fraction.getNumerator()
+                .multiply(BigInteger.valueOf(2).pow(scale - twos))
+                .multiply(five.pow(scale - fives));
+
+        return new BigDecimal(fraction.getDenominator().signum() < 0 ? unscaled.negate() : unscaled, scale);
+    }
+
+}
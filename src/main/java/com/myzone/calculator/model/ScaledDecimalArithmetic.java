@@ -0,0 +1,84 @@
+package com.myzone.calculator.model;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+
+/**
+ * Keeps typed values, which are decimals, as {@link BigDecimal}s, so ADD, SUBTRACT and MULTIPLY don't need any
+ * gcd. Only DIVIDE goes through fractions and falls back to decimal form when the quotient is a finite decimal.
+ *
+ * @author: myzone
+ * @date: 20.10.26 03:30
+ */
+public class ScaledDecimalArithmetic implements Arithmetic<ScaledDecimal> {
+
+    public static final ScaledDecimalArithmetic INSTANCE = new ScaledDecimalArithmetic();
+
+    // 10 ^ 250 has 251 digits
+    private static final int MAX_VALID_PRECISION = 250;
+    private static final int MAX_VALID_SCALE = 249;
+
+    @NotNull
+    @Override
+    public ScaledDecimal valueOf(@NotNull BigFraction value) {
+        return ScaledDecimal.valueOf(value);
+    }
+
+    @NotNull
+    @Override
+    public BigFraction toBigFraction(@NotNull ScaledDecimal value) {
+        return value.toBigFraction();
+    }
+
+    @NotNull
+    @Override
+    public ScaledDecimal add(@NotNull ScaledDecimal lArg, @NotNull ScaledDecimal rArg) {
+        if (lArg.isDecimal() && rArg.isDecimal())
+            return ScaledDecimal.valueOf(lArg.getDecimal().add(rArg.getDecimal()));
+
+        return ScaledDecimal.valueOf(lArg.toBigFraction().add(rArg.toBigFraction()));
+    }
+
+    @NotNull
+    @Override
+    public ScaledDecimal subtract(@NotNull ScaledDecimal lArg, @NotNull ScaledDecimal rArg) {
+        if (lArg.isDecimal() && rArg.isDecimal())
+            return ScaledDecimal.valueOf(lArg.getDecimal().subtract(rArg.getDecimal()));
+
+        return ScaledDecimal.valueOf(lArg.toBigFraction().subtract(rArg.toBigFraction()));
+    }
+
+    @NotNull
+    @Override
+    public ScaledDecimal multiply(@NotNull ScaledDecimal lArg, @NotNull ScaledDecimal rArg) {
+        if (lArg.isDecimal() && rArg.isDecimal())
+            return ScaledDecimal.valueOf(lArg.getDecimal().multiply(rArg.getDecimal()));
+
+        return ScaledDecimal.valueOf(lArg.toBigFraction().multiply(rArg.toBigFraction()));
+    }
+
+    @Nullable
+    @Override
+    public ScaledDecimal divide(@NotNull ScaledDecimal lArg, @NotNull ScaledDecimal rArg) {
+        BigFraction divisor = rArg.toBigFraction();
+        if (divisor.getNumerator().signum() == 0)
+            return null;
+
+        return ScaledDecimal.valueOf(lArg.toBigFraction().divide(divisor));
+    }
+
+    @Override
+    public boolean isValid(@NotNull ScaledDecimal value) {
+        BigDecimal decimal = value.getDecimal();
+
+        // reduction can only shorten unscaled value and 10 ^ scale
+        if (decimal != null && decimal.scale() >= 0 && decimal.scale() <= MAX_VALID_SCALE && decimal.precision() <= MAX_VALID_PRECISION)
+            return true;
+
+        return FractionArithmetic.INSTANCE.isValid(value.toBigFraction());
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.myzone.calculator.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decodes signal representations, optionally extended by aliases, back to signals. Representations are compiled to
+ * a trie over their UTF-8 bytes, both text and bytes are walked through it directly, the longest matching token
+ * wins (so {@code 1/x} is a single signal, but {@code 1/2} is three of them). Spaces and tabs between tokens are
+ * skipped. Instances are immutable and decoding doesn't allocate anything.
+ *
+ * @author: myzone
+ * @date: 20.10.26 06:20
+ */
+public class SignalDecoder {
+
+    private static final int ALPHABET_SIZE = 256;
+    private static final int NO_NODE = 0;
+
+    // transitions[node * ALPHABET_SIZE + byte] is the next node, root is never a target, so 0 means no transition
+    private final int[] transitions;
+    private final Signal[] accepted;
+
+    public SignalDecoder() {
+        this(Collections.<String, Signal>emptyMap());
+    }
+
+    public SignalDecoder(@NotNull Map<String, Signal> aliases) {
+        TrieBuilder builder = new TrieBuilder();
+
+        for (Signal signal : Signal.values()) {
+            builder.add(signal.getRepresentation(), signal);
+        }
+        for (Map.Entry<String, Signal> alias : aliases.entrySet()) {
+            builder.add(alias.getKey(), alias.getValue());
+        }
+
+        transitions = Arrays.copyOf(builder.transitions, builder.nodes * ALPHABET_SIZE);
+        accepted = Arrays.copyOf(builder.accepted, builder.nodes);
+    }
+
+    /**
+     * @return signal represented by the whole token, or null if there is no such one
+     */
+    @Nullable
+    public Signal decodeToken(@NotNull CharSequence token) {
+        int node = 0;
+
+        for (int i = 0; i < token.length(); i++) {
+            node = step(node, token.charAt(i));
+
+            if (node == NO_NODE)
+                return null;
+        }
+
+        return accepted[node];
+    }
+
+    /**
+     * Decodes text[from, to) until the end or the first unknown token.
+     *
+     * @return index where decoding has stopped, it's {@code to} if all the text has been decoded
+     */
+    public int decode(@NotNull CharSequence text, int from, int to, @NotNull Consumer<? super Signal> sink) {
+        int position = from;
+
+        while (position < to) {
+            char c = text.charAt(position);
+            if (c == ' ' || c == '\t') {
+                position++;
+                continue;
+            }
+
+            Signal signal = null;
+            int end = position;
+
+            int node = 0;
+            for (int i = position; i < to; i++) {
+                node = step(node, text.charAt(i));
+
+                if (node == NO_NODE)
+                    break;
+
+                if (accepted[node] != null) {
+                    signal = accepted[node];
+                    end = i + 1;
+                }
+            }
+
+            if (signal == null)
+                return position;
+
+            sink.accept(signal);
+            position = end;
+        }
+
+        return position;
+    }
+
+    /**
+     * Decodes remaining bytes of UTF-8 encoded text until the end or the first unknown token, position of the buffer
+     * is left at the end of decoded part.
+     *
+     * @return true if all remaining bytes have been decoded
+     */
+    public boolean decode(@NotNull ByteBuffer bytes, @NotNull Consumer<? super Signal> sink) {
+        int position = bytes.position();
+        int limit = bytes.limit();
+
+        while (position < limit) {
+            byte b = bytes.get(position);
+            if (b == ' ' || b == '\t') {
+                position++;
+                continue;
+            }
+
+            Signal signal = null;
+            int end = position;
+
+            int node = 0;
+            for (int i = position; i < limit; i++) {
+                node = transitions[node * ALPHABET_SIZE + (bytes.get(i) & 0xFF)];
+
+                if (node == NO_NODE)
+                    break;
+
+                if (accepted[node] != null) {
+                    signal = accepted[node];
+                    end = i + 1;
+                }
+            }
+
+            if (signal == null) {
+                bytes.position(position);
+                return false;
+            }
+
+            sink.accept(signal);
+            position = end;
+        }
+
+        bytes.position(position);
+        return true;
+    }
+
+    // walks UTF-8 bytes of the char, surrogates aren't part of any token
+    private int step(int node, char c) {
+        if (c < 0x80)
+            return transitions[node * ALPHABET_SIZE + c];
+
+        if (c < 0x800) {
+            node = transitions[node * ALPHABET_SIZE + (0xC0 | (c >> 6))];
+        } else {
+            if (Character.isSurrogate(c))
+                return NO_NODE;
+
+            node = transitions[node * ALPHABET_SIZE + (0xE0 | (c >> 12))];
+            if (node == NO_NODE)
+                return NO_NODE;
+
+            node = transitions[node * ALPHABET_SIZE + (0x80 | ((c >> 6) & 0x3F))];
+        }
+
+        if (node == NO_NODE)
+            return NO_NODE;
+
+        return transitions[node * ALPHABET_SIZE + (0x80 | (c & 0x3F))];
+    }
+
+    private static class TrieBuilder {
+
+        private int[] transitions = new int[ALPHABET_SIZE * 16];
+        private Signal[] accepted = new Signal[16];
+        private int nodes = 1;
+
+        void add(String token, Signal signal) {
+            if (token.isEmpty() || token.indexOf(' ') >= 0 || token.indexOf('\t') >= 0)
+                throw new IllegalArgumentException("Token '" + token + "' of " + signal + " can't be decoded");
+
+            int node = 0;
+            for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+                int transition = node * ALPHABET_SIZE + (b & 0xFF);
+
+                if (transitions[transition] == NO_NODE) {
+                    if (nodes == accepted.length) {
+                        transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                        accepted = Arrays.copyOf(accepted, accepted.length * 2);
+                    }
+
+                    transitions[transition] = nodes++;
+                }
+
+                node = transitions[transition];
+            }
+
+            if (accepted[node] != null && accepted[node] != signal)
+                throw new IllegalArgumentException("Token '" + token + "' is ambiguous: " + accepted[node] + " or " + signal);
+
+            accepted[node] = signal;
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package com.myzone.calculator.replication;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.myzone.calculator.replication.ReplicationProtocol.*;
+
+/**
+ * Ships accepted signals and session lifecycle of a {@link com.myzone.calculator.server.CalculatorServer} to a
+ * {@link StandbyServer}. The state machine is deterministic, so the standby gets the same state by replaying them.
+ * <p>
+ * Records are appended by the server thread into a buffer which is sent by a separate thread, so the server waits
+ * only if the buffer is full or, in {@link Mode#SEMI_SYNCHRONOUS} mode, on {@link #commit()}. Once the standby
+ * link fails, replication stops and the primary goes on alone.
+ *
+ * @author: myzone
+ * @date: 20.10.26 13:40
+ */
+public class ReplicationPrimary implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationPrimary.class);
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    public static enum Mode {
+        /**
+         * Answers are sent to clients regardless of acknowledgements, records appended right before a failover
+         * may be lost.
+         */
+        ASYNCHRONOUS,
+        /**
+         * Answers are sent to clients once the standby has acknowledged records they depend on; if it doesn't
+         * acknowledge them in time, primary degrades to asynchronous mode until the standby catches up.
+         */
+        SEMI_SYNCHRONOUS
+    }
+
+    private final Mode mode;
+    private final long acknowledgementTimeoutNanos;
+
+    private final SocketChannel channel;
+    private final Thread sender;
+    private final Thread acknowledgementReader;
+
+    private final ReentrantLock lock;
+    private final Condition appended;
+    private final Condition sent;
+    private final Condition acknowledged;
+
+    private ByteBuffer pending;
+    private ByteBuffer sending;
+    // last sequence and append time of the first record of every sent batch which isn't acknowledged yet
+    private final Queue<long[]> unacknowledgedBatches;
+    private long pendingSince;
+
+    private long appendedSequence;
+    private long sentSequence;
+    private volatile long acknowledgedSequence;
+    private boolean degraded;
+    // standby is considered caught up once it acknowledges it, later records keep being appended meanwhile
+    private long degradedSequence;
+    private volatile boolean failed;
+
+    public ReplicationPrimary(@NotNull InetSocketAddress standby, @NotNull Mode mode, long acknowledgementTimeout, @NotNull TimeUnit unit) throws IOException {
+        this.mode = mode;
+        this.acknowledgementTimeoutNanos = unit.toNanos(acknowledgementTimeout);
+
+        channel = SocketChannel.open(standby);
+        channel.socket().setTcpNoDelay(true);
+
+        lock = new ReentrantLock();
+        appended = lock.newCondition();
+        sent = lock.newCondition();
+        acknowledged = lock.newCondition();
+
+        pending = ByteBuffer.allocate(BUFFER_SIZE);
+        sending = ByteBuffer.allocate(BUFFER_SIZE);
+        unacknowledgedBatches = new ArrayDeque<>();
+
+        sender = new Thread(this::send, "replication-sender");
+        sender.setDaemon(true);
+        sender.start();
+
+        acknowledgementReader = new Thread(this::readAcknowledgements, "replication-acknowledgements");
+        acknowledgementReader.setDaemon(true);
+        acknowledgementReader.start();
+    }
+
+    @NotNull
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void open(int connectionId, int sessionId) throws InterruptedIOException {
+        append(OPEN, connectionId, sessionId, null);
+    }
+
+    /**
+     * @param ordinals remaining bytes are ordinals of accepted signals, they aren't consumed
+     */
+    public void signals(int connectionId, int sessionId, @NotNull ByteBuffer ordinals) throws InterruptedIOException {
+        append(SIGNALS, connectionId, sessionId, ordinals);
+    }
+
+    public void close(int connectionId, int sessionId) throws InterruptedIOException {
+        append(CLOSE, connectionId, sessionId, null);
+    }
+
+    /**
+     * @param encodedSession remaining bytes are the imported session, they aren't consumed
+     */
+    public void importSession(int connectionId, int sessionId, @NotNull ByteBuffer encodedSession) throws InterruptedIOException {
+        append(IMPORT, connectionId, sessionId, encodedSession);
+    }
+
+    public void disconnect(int connectionId) throws InterruptedIOException {
+        append(DISCONNECT, connectionId, 0, null);
+    }
+
+    /**
+     * In semi-synchronous mode waits until all appended records are acknowledged, does nothing otherwise.
+     */
+    public void commit() throws InterruptedIOException {
+        if (mode != Mode.SEMI_SYNCHRONOUS || failed)
+            return;
+
+        lock.lock();
+        try {
+            if (degraded)
+                return;
+
+            long target = appendedSequence;
+            long timeout = acknowledgementTimeoutNanos;
+            while (acknowledgedSequence < target && !failed) {
+                if (timeout <= 0) {
+                    degraded = true;
+                    degradedSequence = target;
+                    LOGGER.warn("Standby hasn't acknowledged record {} in time, replication is asynchronous until it catches up", target);
+                    return;
+                }
+
+                timeout = acknowledged.awaitNanos(timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Commit has been interrupted");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAppendedSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSentSequence() {
+        lock.lock();
+        try {
+            return sentSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAcknowledgedSequence() {
+        return acknowledgedSequence;
+    }
+
+    /**
+     * @return count of appended records which haven't been acknowledged
+     */
+    public long getLag() {
+        return getAppendedSequence() - acknowledgedSequence;
+    }
+
+    /**
+     * @return time since the oldest unacknowledged record has been appended, 0 if there isn't any
+     */
+    public long getLagNanos() {
+        lock.lock();
+        try {
+            long[] oldestBatch = unacknowledgedBatches.peek();
+            if (oldestBatch != null)
+                return System.nanoTime() - oldestBatch[1];
+
+            return pending.position() > 0 ? System.nanoTime() - pendingSince : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isDegraded() {
+        lock.lock();
+        try {
+            return degraded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        failed = true;
+        channel.close();
+        sender.interrupt();
+
+        lock.lock();
+        try {
+            acknowledged.signalAll();
+            sent.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected void append(byte type, int connectionId, int sessionId, ByteBuffer payload) throws InterruptedIOException {
+        int size = RECORD_HEADER_SIZE + (payload != null ? 2 + payload.remaining() : 0);
+
+        lock.lock();
+        try {
+            while (!failed && pending.remaining() < size) {
+                if (pending.position() == 0) {
+                    pending = ByteBuffer.allocate(size);
+                    break;
+                }
+
+                sent.await();
+            }
+
+            // sequence is taken once space is reserved, so the sender never accounts a record which isn't in its batch
+            appendedSequence++;
+            if (failed)
+                return;
+
+            if (pending.position() == 0) {
+                pendingSince = System.nanoTime();
+            }
+
+            pending.putLong(appendedSequence).put(type).putInt(connectionId).putInt(sessionId);
+            if (payload != null) {
+                pending.putShort((short) payload.remaining()).put(payload.duplicate());
+            }
+
+            appended.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Append has been interrupted");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send() {
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    while (pending.position() == 0) {
+                        appended.await();
+                    }
+
+                    ByteBuffer batch = pending;
+                    pending = sending.capacity() >= BUFFER_SIZE ? sending : ByteBuffer.allocate(BUFFER_SIZE);
+                    sending = batch;
+
+                    sentSequence = appendedSequence;
+                    unacknowledgedBatches.add(new long[]{sentSequence, pendingSince});
+                    sent.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                sending.flip();
+                while (sending.hasRemaining()) {
+                    channel.write(sending);
+                }
+                sending.clear();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void readAcknowledgements() {
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+            while (true) {
+                long sequence = input.readLong();
+
+                lock.lock();
+                try {
+                    acknowledgedSequence = Math.max(acknowledgedSequence, sequence);
+                    while (!unacknowledgedBatches.isEmpty() && unacknowledgedBatches.peek()[0] <= acknowledgedSequence) {
+                        unacknowledgedBatches.remove();
+                    }
+
+                    if (degraded && acknowledgedSequence >= degradedSequence) {
+                        degraded = false;
+                        LOGGER.info("Standby has caught up, replication is semi-synchronous again");
+                    }
+
+                    acknowledged.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failed)
+            return;
+
+        LOGGER.error("Replication has failed, primary goes on without standby", e);
+
+        lock.lock();
+        try {
+            failed = true;
+            acknowledged.signalAll();
+            sent.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.myzone.calculator.replication;
+
+/**
+ * Log shipped from {@link ReplicationPrimary} to {@link StandbyServer}, all integers are big-endian. Every record is
+ * long sequence number (consecutive, starting from 1), byte type, int connection id, int session id and
+ * <ul>
+ * <li>OPEN: nothing</li>
+ * <li>SIGNALS: unsigned short count, count bytes of {@link com.myzone.calculator.model.Signal} ordinals which have
+ * been accepted by the primary</li>
+ * <li>CLOSE: nothing</li>
+ * <li>IMPORT: unsigned short length, length bytes of session encoded by
+ * {@link com.myzone.calculator.store.SessionCodec}</li>
+ * <li>DISCONNECT: nothing, session id is ignored, all sessions of the connection are closed</li>
+ * </ul>
+ * Standby answers with long sequence numbers of the last applied records, every answer acknowledges all the
+ * records before it.
+ *
+ * @author: myzone
+ * @date: 20.10.26 13:30
+ */
+public final class ReplicationProtocol {
+
+    public static final byte OPEN = 0x01;
+    public static final byte SIGNALS = 0x02;
+    public static final byte CLOSE = 0x03;
+    public static final byte IMPORT = 0x04;
+    public static final byte DISCONNECT = 0x05;
+
+    public static final int RECORD_HEADER_SIZE = 8 + 1 + 4 + 4;
+
+    private ReplicationProtocol() {
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.myzone.calculator.replication;
+
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.server.CalculatorServer.CalculatorSession;
+import com.myzone.calculator.store.SessionCodec;
+import com.myzone.calculator.store.StoredSession;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.myzone.calculator.replication.ReplicationProtocol.*;
+
+/**
+ * Keeps replicas of sessions of a primary {@link com.myzone.calculator.server.CalculatorServer} by replaying the log
+ * shipped by its {@link ReplicationPrimary}. Serves one primary at a time, a new primary starts from scratch.
+ *
+ * @author: myzone
+ * @date: 20.10.26 14:10
+ */
+public class StandbyServer implements Runnable, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandbyServer.class);
+
+    private static final Signal[] SIGNALS_BY_ORDINAL = Signal.values();
+
+    protected final ServerSocketChannel serverChannel;
+
+    // connection id -> session id -> replica
+    private final Map<Integer, Map<Integer, CalculatorSession>> connections;
+    private volatile long appliedSequence;
+    private volatile SocketChannel primaryChannel;
+
+    public StandbyServer(@NotNull InetSocketAddress address) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+
+        connections = new HashMap<>();
+    }
+
+    @NotNull
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Replicates primaries one by one until the server is closed.
+     */
+    @Override
+    public void run() {
+        while (serverChannel.isOpen()) {
+            try (SocketChannel channel = serverChannel.accept()) {
+                channel.socket().setTcpNoDelay(true);
+                primaryChannel = channel;
+                replicate(channel);
+            } catch (AsynchronousCloseException e) {
+                // closed concurrently
+            } catch (EOFException e) {
+                LOGGER.info("Primary has disconnected at record {}", appliedSequence);
+            } catch (IOException e) {
+                LOGGER.error("Replication has failed at record {}", appliedSequence, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+
+        SocketChannel channel = primaryChannel;
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public synchronized int getSessionCount() {
+        int sessionCount = 0;
+        for (Map<Integer, CalculatorSession> sessions : connections.values()) {
+            sessionCount += sessions.size();
+        }
+
+        return sessionCount;
+    }
+
+    /**
+     * @return replica of the session or null if there is no such one
+     */
+    @Nullable
+    public synchronized StoredSession getSession(int connectionId, int sessionId) {
+        Map<Integer, CalculatorSession> sessions = connections.get(connectionId);
+        CalculatorSession session = sessions != null ? sessions.get(sessionId) : null;
+
+        return session != null ? session.store() : null;
+    }
+
+    protected void replicate(SocketChannel channel) throws IOException {
+        synchronized (this) {
+            connections.clear();
+            appliedSequence = 0;
+        }
+
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        DataOutputStream output = new DataOutputStream(Channels.newOutputStream(channel));
+        byte[] payload = new byte[0xFFFF];
+
+        while (true) {
+            long sequence = input.readLong();
+            byte type = input.readByte();
+            int connectionId = input.readInt();
+            int sessionId = input.readInt();
+
+            int length = type == SIGNALS || type == IMPORT ? input.readUnsignedShort() : 0;
+            input.readFully(payload, 0, length);
+
+            if (sequence != appliedSequence + 1)
+                throw new IOException("Record " + sequence + " doesn't follow record " + appliedSequence);
+
+            synchronized (this) {
+                apply(type, connectionId, sessionId, payload, length);
+                appliedSequence = sequence;
+            }
+
+            // everything which has been received is applied
+            if (input.available() == 0) {
+                output.writeLong(sequence);
+                output.flush();
+            }
+        }
+    }
+
+    protected void apply(byte type, int connectionId, int sessionId, byte[] payload, int length) throws IOException {
+        Map<Integer, CalculatorSession> sessions = connections.computeIfAbsent(connectionId, id -> new HashMap<>());
+
+        switch (type) {
+            case OPEN:
+                sessions.put(sessionId, new CalculatorSession(CalculatorModel.ConcurrencyMode.BLOCKING));
+                break;
+
+            case SIGNALS:
+                CalculatorSession session = sessions.get(sessionId);
+                if (session == null)
+                    throw new IOException("Session " + sessionId + " of connection " + connectionId + " isn't open");
+
+                for (int i = 0; i < length; i++) {
+                    session.react(SIGNALS_BY_ORDINAL[payload[i] & 0xFF]);
+                }
+                break;
+
+            case CLOSE:
+                sessions.remove(sessionId);
+                break;
+
+            case IMPORT:
+                sessions.put(sessionId, new CalculatorSession(CalculatorModel.ConcurrencyMode.BLOCKING, SessionCodec.decode(ByteBuffer.wrap(payload, 0, length))));
+                break;
+
+            case DISCONNECT:
+                connections.remove(connectionId);
+                break;
+
+            default:
+                throw new IOException("Unknown record type " + type);
+        }
+
+        if (sessions.isEmpty()) {
+            connections.remove(connectionId);
+        }
+    }
+
+}
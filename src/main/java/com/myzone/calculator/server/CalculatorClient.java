@@ -0,0 +1,222 @@
+package com.myzone.calculator.server;
+
+import com.myzone.calculator.model.Signal;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import static com.myzone.calculator.server.CalculatorProtocol.*;
+
+/**
+ * Blocking client of {@link CalculatorServer}, every call sends its frames and waits for their answers. Thread safe,
+ * calls are serialized.
+ *
+ * @author: myzone
+ * @date: 20.10.26 11:40
+ */
+public class CalculatorClient implements Closeable {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final DataInputStream input;
+    private final ByteBuffer output;
+
+    private int answerSessionId;
+
+    public CalculatorClient(@NotNull InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+
+        input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+    }
+
+    @NotNull
+    public synchronized Update open(int sessionId) throws IOException {
+        output.put(OPEN).putInt(sessionId);
+        send();
+
+        return readUpdate();
+    }
+
+    /**
+     * Sends signals in as many frames as needed.
+     *
+     * @return update after the last signal
+     */
+    @NotNull
+    public synchronized Update process(int sessionId, @NotNull Signal... signals) throws IOException {
+        int frames = 0;
+        int offset = 0;
+
+        do {
+            int count = Math.min(signals.length - offset, Math.min(MAX_SIGNALS_PER_FRAME, output.capacity() - 7));
+            if (output.remaining() < 7 + count) {
+                send();
+            }
+
+            output.put(SIGNALS).putInt(sessionId).putShort((short) count);
+            for (int i = offset; i < offset + count; i++) {
+                output.put((byte) signals[i].ordinal());
+            }
+
+            offset += count;
+            frames++;
+        } while (offset < signals.length);
+        send();
+
+        // all answers have to be read, even if some frame has failed
+        Update update = null;
+        FailureException failure = null;
+        for (int i = 0; i < frames; i++) {
+            try {
+                update = readUpdate();
+            } catch (FailureException e) {
+                failure = failure != null ? failure : e;
+            }
+        }
+
+        if (failure != null)
+            throw failure;
+
+        return update;
+    }
+
+    public synchronized void close(int sessionId) throws IOException {
+        output.put(CLOSE).putInt(sessionId);
+        send();
+    }
+
+    /**
+     * Closes the session on the server.
+     *
+     * @return encoded session which can be imported
+     */
+    @NotNull
+    public synchronized byte[] exportSession(int sessionId) throws IOException {
+        output.put(EXPORT).putInt(sessionId);
+        send();
+
+        if (readAnswer() != STATE)
+            throw new IOException("Unexpected answer to EXPORT");
+
+        byte[] encodedSession = new byte[input.readUnsignedShort()];
+        input.readFully(encodedSession);
+
+        return encodedSession;
+    }
+
+    @NotNull
+    public synchronized Update importSession(int sessionId, @NotNull byte[] encodedSession) throws IOException {
+        if (encodedSession.length > MAX_SESSION_SIZE)
+            throw new IllegalArgumentException("Session is too large to be imported");
+
+        output.put(IMPORT).putInt(sessionId).putShort((short) encodedSession.length);
+        for (int offset = 0; offset < encodedSession.length; ) {
+            int length = Math.min(output.remaining(), encodedSession.length - offset);
+            output.put(encodedSession, offset, length);
+            offset += length;
+
+            if (!output.hasRemaining()) {
+                send();
+            }
+        }
+        send();
+
+        return readUpdate();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void send() throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+
+    private Update readUpdate() throws IOException {
+        if (readAnswer() != UPDATE)
+            throw new IOException("Unexpected answer");
+
+        byte flags = input.readByte();
+        byte[] displayText = new byte[input.readUnsignedShort()];
+        input.readFully(displayText);
+
+        return new Update(answerSessionId, (flags & MEMORY_FLAG) != 0, new String(displayText, StandardCharsets.UTF_8));
+    }
+
+    // reads type and session id of the next answer, failures are thrown
+    private byte readAnswer() throws IOException {
+        byte type = input.readByte();
+        answerSessionId = input.readInt();
+
+        if (type == FAILURE)
+            throw new FailureException(answerSessionId, input.readByte());
+
+        return type;
+    }
+
+    public static final class Update {
+
+        private final int sessionId;
+        private final boolean memoryFlag;
+        private final String displayText;
+
+        public Update(int sessionId, boolean memoryFlag, @NotNull String displayText) {
+            this.sessionId = sessionId;
+            this.memoryFlag = memoryFlag;
+            this.displayText = displayText;
+        }
+
+        public int getSessionId() {
+            return sessionId;
+        }
+
+        public boolean isMemoryFlag() {
+            return memoryFlag;
+        }
+
+        @NotNull
+        public String getDisplayText() {
+            return displayText;
+        }
+
+    }
+
+    public static class FailureException extends IOException {
+
+        private final int sessionId;
+        private final byte code;
+
+        public FailureException(int sessionId, byte code) {
+            super("Session " + sessionId + " has failed with code " + code);
+
+            this.sessionId = sessionId;
+            this.code = code;
+        }
+
+        public int getSessionId() {
+            return sessionId;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.myzone.calculator.server;
+
+/**
+ * Binary protocol of {@link CalculatorServer}, all integers are big-endian.
+ * <p>
+ * Client frames:
+ * <ul>
+ * <li>OPEN: type, int session id</li>
+ * <li>SIGNALS: type, int session id, unsigned short count, count bytes of {@link com.myzone.calculator.model.Signal}
+ * ordinals</li>
+ * <li>CLOSE: type, int session id</li>
+ * <li>EXPORT: type, int session id</li>
+ * <li>IMPORT: type, int session id, unsigned short length, length bytes of session encoded by
+ * {@link com.myzone.calculator.store.SessionCodec}</li>
+ * </ul>
+ * Server answers every frame except of CLOSE, in order of their arrival, with either
+ * <ul>
+ * <li>UPDATE: type, int session id, byte flags, unsigned short length, length bytes of UTF-8 display text</li>
+ * <li>STATE: type, int session id, unsigned short length, length bytes of encoded session, it answers EXPORT,
+ * which closes the session</li>
+ * <li>FAILURE: type, int session id, byte failure code</li>
+ * </ul>
+ * Frames may be pipelined, server doesn't need to answer a frame before the next one is sent.
+ *
+ * @author: myzone
+ * @date: 20.10.26 04:10
+ */
+public final class CalculatorProtocol {
+
+    public static final byte OPEN = 0x01;
+    public static final byte SIGNALS = 0x02;
+    public static final byte CLOSE = 0x03;
+    public static final byte EXPORT = 0x04;
+    public static final byte IMPORT = 0x05;
+
+    public static final byte UPDATE = (byte) 0x81;
+    public static final byte STATE = (byte) 0x82;
+    public static final byte FAILURE = (byte) 0xFF;
+
+    public static final byte MEMORY_FLAG = 0x01;
+
+    public static final byte UNKNOWN_SESSION = 1;
+    public static final byte SESSION_ALREADY_OPEN = 2;
+    public static final byte TOO_MANY_SESSIONS = 3;
+    public static final byte UNKNOWN_SIGNAL = 4;
+    public static final byte MALFORMED_SESSION = 5;
+    public static final byte SESSION_TOO_LARGE = 6;
+
+    public static final int MAX_SIGNALS_PER_FRAME = 0xFFFF;
+    public static final int MAX_SESSION_SIZE = 0xFFFF;
+
+    private CalculatorProtocol() {
+    }
+
+}
@@ -0,0 +1,484 @@
+package com.myzone.calculator.server;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.EvaluationBudget;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.replication.ReplicationPrimary;
+import com.myzone.calculator.store.SessionCodec;
+import com.myzone.calculator.store.StoredSession;
+import com.myzone.utils.concurrent.BigFractionAdder;
+import com.myzone.utils.statemachine.State;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.myzone.calculator.server.CalculatorProtocol.*;
+
+/**
+ * Headless calculator speaking {@link CalculatorProtocol}. A single selector thread serves all connections, models
+ * of their sessions are confined to it, so signals are processed without any locking or hand-off.
+ *
+ * @author: myzone
+ * @date: 20.10.26 04:20
+ */
+public class CalculatorServer implements Runnable, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalculatorServer.class);
+
+    private static final Signal[] SIGNALS_BY_ORDINAL = Signal.values();
+
+    private static final int INPUT_BUFFER_SIZE = 1 + 4 + 2 + Math.max(MAX_SIGNALS_PER_FRAME, MAX_SESSION_SIZE);
+    // display text is truncated by the model, so the largest answer is STATE
+    private static final int MAX_ANSWER_SIZE = 1 + 4 + 2 + MAX_SESSION_SIZE;
+    private static final int OUTPUT_BUFFER_SIZE = 2 * MAX_ANSWER_SIZE;
+    public static final int DEFAULT_MAX_SESSIONS_PER_CONNECTION = 1024;
+
+    protected final Selector selector;
+    protected final ServerSocketChannel serverChannel;
+    protected final int maxSessionsPerConnection;
+    @Nullable
+    protected final ReplicationPrimary replication;
+    @Nullable
+    protected final BigFractionAdder sharedMemory;
+
+    private int nextConnectionId;
+
+    public CalculatorServer(@NotNull InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_MAX_SESSIONS_PER_CONNECTION);
+    }
+
+    public CalculatorServer(@NotNull InetSocketAddress address, int maxSessionsPerConnection) throws IOException {
+        this(address, maxSessionsPerConnection, null);
+    }
+
+    /**
+     * @param replication ships everything sessions accept to a standby, answers are sent once it's committed
+     */
+    public CalculatorServer(@NotNull InetSocketAddress address, int maxSessionsPerConnection, @Nullable ReplicationPrimary replication) throws IOException {
+        this(address, maxSessionsPerConnection, replication, null);
+    }
+
+    /**
+     * @param sharedMemory memory register shared by all sessions of the server, it isn't replicated since the standby
+     *                     replays signals of every session on its own
+     */
+    public CalculatorServer(@NotNull InetSocketAddress address, int maxSessionsPerConnection, @Nullable ReplicationPrimary replication, @Nullable BigFractionAdder sharedMemory) throws IOException {
+        if (maxSessionsPerConnection < 1)
+            throw new IllegalArgumentException("Connection has to be allowed to open at least one session");
+        if (replication != null && sharedMemory != null)
+            throw new IllegalArgumentException("Shared memory can't be replicated");
+
+        this.maxSessionsPerConnection = maxSessionsPerConnection;
+        this.replication = replication;
+        this.sharedMemory = sharedMemory;
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    @NotNull
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Serves connections until the server is closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid())
+                        continue;
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+
+                        try {
+                            connection.serve(key);
+                        } catch (IOException e) {
+                            LOGGER.debug("Connection {} has failed", connection, e);
+                            connection.close(key);
+                        }
+                    }
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            // closed concurrently
+        } catch (IOException e) {
+            LOGGER.error("Server has failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        selector.close();
+    }
+
+    protected void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+            return;
+
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel, nextConnectionId++, maxSessionsPerConnection, replication, sharedMemory));
+    }
+
+    /**
+     * Model of a hosted session together with the state it's in.
+     */
+    public static class CalculatorSession {
+
+        protected final CalculatorModel model;
+        protected final CalculatorStateFactory stateFactory;
+        protected State<Signal> state;
+
+        public CalculatorSession(@NotNull CalculatorModel.ConcurrencyMode concurrencyMode) {
+            this(concurrencyMode, (BigFractionAdder) null);
+        }
+
+        /**
+         * @param sharedMemory memory register of the session, it's neither stored nor restored with it
+         */
+        public CalculatorSession(@NotNull CalculatorModel.ConcurrencyMode concurrencyMode, @Nullable BigFractionAdder sharedMemory) {
+            model = new CalculatorModel(concurrencyMode, EvaluationBudget.UNLIMITED, sharedMemory);
+            // every frame is answered anyway, so there is nothing to do on invalidation
+            stateFactory = new CalculatorStateFactory(model, () -> {
+            });
+            state = stateFactory.getStartState();
+        }
+
+        public CalculatorSession(@NotNull CalculatorModel.ConcurrencyMode concurrencyMode, @NotNull StoredSession storedSession) {
+            this(concurrencyMode, null, storedSession);
+        }
+
+        public CalculatorSession(@NotNull CalculatorModel.ConcurrencyMode concurrencyMode, @Nullable BigFractionAdder sharedMemory, @NotNull StoredSession storedSession) {
+            this(concurrencyMode, sharedMemory);
+
+            state = stateFactory.getState(storedSession.getStateId());
+            try (CalculatorModel.Session session = model.createSession()) {
+                session.restore(storedSession.getSnapshot());
+            }
+        }
+
+        public void react(@NotNull Signal signal) {
+            state = state.react(signal);
+        }
+
+        @NotNull
+        public CalculatorModel getModel() {
+            return model;
+        }
+
+        @NotNull
+        public StoredSession store() {
+            try (CalculatorModel.Session session = model.createSession()) {
+                return new StoredSession(stateFactory.getStateId(state), session.snapshot());
+            }
+        }
+
+    }
+
+    protected static class Connection {
+
+        protected final SocketChannel channel;
+        protected final ByteBuffer input;
+        protected final ByteBuffer output;
+        protected final Map<Integer, CalculatorSession> sessions;
+        protected final int id;
+        protected final int maxSessions;
+        @Nullable
+        protected final ReplicationPrimary replication;
+        @Nullable
+        protected final BigFractionAdder sharedMemory;
+
+        public Connection(SocketChannel channel, int id, int maxSessions, @Nullable ReplicationPrimary replication, @Nullable BigFractionAdder sharedMemory) {
+            this.channel = channel;
+            this.id = id;
+            this.maxSessions = maxSessions;
+            this.replication = replication;
+            this.sharedMemory = sharedMemory;
+            this.input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+            this.output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+            this.sessions = new HashMap<>();
+        }
+
+        protected void serve(SelectionKey key) throws IOException {
+            if (key.isReadable() && channel.read(input) < 0) {
+                close(key);
+                return;
+            }
+
+            while (true) {
+                boolean outputIsFull = false;
+
+                input.flip();
+                while (true) {
+                    if (output.remaining() < MAX_ANSWER_SIZE) {
+                        outputIsFull = true;
+                        break;
+                    }
+
+                    if (!processFrame())
+                        break;
+                }
+                input.compact();
+
+                if (replication != null) {
+                    replication.commit();
+                }
+
+                output.flip();
+                channel.write(output);
+                output.compact();
+
+                // the rest of input waits until answers have been sent
+                if (!outputIsFull || output.position() > 0)
+                    break;
+            }
+
+            // stop reading while answers can't be sent
+            key.interestOps(output.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        /**
+         * @return false if there isn't any complete frame
+         */
+        protected boolean processFrame() throws IOException {
+            if (input.remaining() < 5)
+                return false;
+
+            int start = input.position();
+            byte type = input.get(start);
+            int sessionId = input.getInt(start + 1);
+
+            switch (type) {
+                case OPEN:
+                    input.position(start + 5);
+                    open(sessionId);
+                    return true;
+
+                case SIGNALS:
+                    if (input.remaining() < 7)
+                        return false;
+
+                    int count = input.getShort(start + 5) & 0xFFFF;
+                    if (input.remaining() < 7 + count)
+                        return false;
+
+                    input.position(start + 7);
+                    process(sessionId, count);
+                    return true;
+
+                case CLOSE:
+                    input.position(start + 5);
+                    if (sessions.remove(sessionId) != null && replication != null) {
+                        replication.close(id, sessionId);
+                    }
+                    return true;
+
+                case EXPORT:
+                    input.position(start + 5);
+                    export(sessionId);
+                    return true;
+
+                case IMPORT:
+                    if (input.remaining() < 7)
+                        return false;
+
+                    int length = input.getShort(start + 5) & 0xFFFF;
+                    if (input.remaining() < 7 + length)
+                        return false;
+
+                    ByteBuffer encodedSession = input.duplicate();
+                    encodedSession.position(start + 7).limit(start + 7 + length);
+                    input.position(start + 7 + length);
+                    importSession(sessionId, encodedSession);
+                    return true;
+
+                default:
+                    throw new IOException("Unknown frame type " + type);
+            }
+        }
+
+        protected void open(int sessionId) throws IOException {
+            if (admitsSession(sessionId)) {
+                CalculatorSession session = new CalculatorSession(CalculatorModel.ConcurrencyMode.THREAD_CONFINED, sharedMemory);
+                sessions.put(sessionId, session);
+                update(sessionId, session);
+
+                if (replication != null) {
+                    replication.open(id, sessionId);
+                }
+            }
+        }
+
+        protected void importSession(int sessionId, ByteBuffer encodedSession) throws IOException {
+            if (!admitsSession(sessionId))
+                return;
+
+            CalculatorSession session;
+            try {
+                session = new CalculatorSession(CalculatorModel.ConcurrencyMode.THREAD_CONFINED, sharedMemory, SessionCodec.decode(encodedSession.duplicate()));
+            } catch (IllegalArgumentException e) {
+                LOGGER.debug("Session {} can't be imported", sessionId, e);
+                fail(sessionId, MALFORMED_SESSION);
+                return;
+            }
+
+            sessions.put(sessionId, session);
+            update(sessionId, session);
+
+            if (replication != null) {
+                replication.importSession(id, sessionId, encodedSession);
+            }
+        }
+
+        protected void export(int sessionId) throws IOException {
+            CalculatorSession session = sessions.get(sessionId);
+            if (session == null) {
+                fail(sessionId, UNKNOWN_SESSION);
+                return;
+            }
+
+            StoredSession storedSession = session.store();
+            ByteBuffer encodedSession = SessionCodec.encode(storedSession.getStateId(), storedSession.getSnapshot());
+            if (encodedSession.remaining() > MAX_SESSION_SIZE) {
+                fail(sessionId, SESSION_TOO_LARGE);
+                return;
+            }
+
+            sessions.remove(sessionId);
+            if (replication != null) {
+                replication.close(id, sessionId);
+            }
+
+            output.put(STATE);
+            output.putInt(sessionId);
+            output.putShort((short) encodedSession.remaining());
+            output.put(encodedSession);
+        }
+
+        protected boolean admitsSession(int sessionId) {
+            if (sessions.containsKey(sessionId)) {
+                fail(sessionId, SESSION_ALREADY_OPEN);
+                return false;
+            }
+
+            if (sessions.size() >= maxSessions) {
+                fail(sessionId, TOO_MANY_SESSIONS);
+                return false;
+            }
+
+            return true;
+        }
+
+        protected void process(int sessionId, int count) throws IOException {
+            CalculatorSession session = sessions.get(sessionId);
+            if (session == null) {
+                input.position(input.position() + count);
+                fail(sessionId, UNKNOWN_SESSION);
+                return;
+            }
+
+            ByteBuffer ordinals = input.duplicate();
+            for (int i = 0; i < count; i++) {
+                int ordinal = input.get() & 0xFF;
+
+                if (ordinal >= SIGNALS_BY_ORDINAL.length) {
+                    input.position(input.position() + count - i - 1);
+                    fail(sessionId, UNKNOWN_SIGNAL);
+
+                    // signals before the unknown one have been accepted
+                    replicate(sessionId, ordinals, i);
+                    return;
+                }
+
+                session.react(SIGNALS_BY_ORDINAL[ordinal]);
+            }
+
+            update(sessionId, session);
+            replicate(sessionId, ordinals, count);
+        }
+
+        protected void replicate(int sessionId, ByteBuffer ordinals, int count) throws IOException {
+            if (replication != null && count > 0) {
+                ordinals.limit(ordinals.position() + count);
+                replication.signals(id, sessionId, ordinals);
+            }
+        }
+
+        protected void update(int sessionId, CalculatorSession session) {
+            try (CalculatorModel.Session modelSession = session.model.createSession()) {
+                byte[] displayText = modelSession.getDisplayText().getBytes(StandardCharsets.UTF_8);
+
+                output.put(UPDATE);
+                output.putInt(sessionId);
+                output.put(modelSession.isMemoryNonZero() ? MEMORY_FLAG : 0);
+                output.putShort((short) displayText.length);
+                output.put(displayText);
+            }
+        }
+
+        protected void fail(int sessionId, byte code) {
+            output.put(FAILURE);
+            output.putInt(sessionId);
+            output.put(code);
+        }
+
+        protected void close(SelectionKey key) {
+            key.cancel();
+
+            if (replication != null && !sessions.isEmpty()) {
+                try {
+                    replication.disconnect(id);
+                } catch (IOException e) {
+                    LOGGER.warn("Disconnection of {} hasn't been replicated", this, e);
+                }
+            }
+
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Connection {} hasn't been closed cleanly", this, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(channel);
+        }
+
+    }
+
+}
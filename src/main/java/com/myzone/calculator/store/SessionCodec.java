@@ -0,0 +1,126 @@
+package com.myzone.calculator.store;
+
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of a session: byte state id, byte operation ordinal (-1 for none), then lArg, rArg,
+ * memory, display text and display data. Fractions are numerator and denominator, both as two's-complement bytes,
+ * every byte array is prefixed by its varint length.
+ *
+ * @author: myzone
+ * @date: 20.10.26 11:00
+ */
+public final class SessionCodec {
+
+    private static final int INITIAL_CAPACITY = 96;
+
+    private static final CalculatorModel.Operation[] OPERATIONS = CalculatorModel.Operation.values();
+
+    private SessionCodec() {
+    }
+
+    /**
+     * @return buffer ready to be read
+     */
+    @NotNull
+    public static ByteBuffer encode(int stateId, @NotNull CalculatorModel.Snapshot snapshot) {
+        if (stateId < 0 || stateId > Byte.MAX_VALUE)
+            throw new IllegalArgumentException("State id " + stateId + " doesn't fit into a byte");
+
+        CalculatorModel.Operation operation = snapshot.getOperation();
+
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        buffer.put((byte) stateId);
+        buffer.put((byte) (operation != null ? operation.ordinal() : -1));
+        buffer = putFraction(buffer, snapshot.getlArg());
+        buffer = putFraction(buffer, snapshot.getrArg());
+        buffer = putFraction(buffer, snapshot.getMemory());
+        buffer = putBytes(buffer, snapshot.getDisplayText().getBytes(StandardCharsets.UTF_8));
+        buffer = putFraction(buffer, snapshot.getDisplayData());
+        buffer.flip();
+
+        return buffer;
+    }
+
+    /**
+     * Consumes encoded session from the buffer.
+     */
+    @NotNull
+    public static StoredSession decode(@NotNull ByteBuffer buffer) {
+        try {
+            int stateId = buffer.get();
+            int operation = buffer.get();
+            if (stateId < 0 || operation < -1 || operation >= OPERATIONS.length)
+                throw new IllegalArgumentException("Session is malformed");
+
+            return new StoredSession(stateId, CalculatorModel.Snapshot.of(
+                    getFraction(buffer),
+                    getFraction(buffer),
+                    getFraction(buffer),
+                    new String(getBytes(buffer), StandardCharsets.UTF_8),
+                    getFraction(buffer),
+                    operation >= 0 ? OPERATIONS[operation] : null
+            ));
+        } catch (BufferUnderflowException | NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Session is malformed", e);
+        }
+    }
+
+    private static ByteBuffer putFraction(ByteBuffer buffer, BigFraction fraction) {
+        return putBytes(putBytes(buffer, fraction.getNumerator().toByteArray()), fraction.getDenominator().toByteArray());
+    }
+
+    private static BigFraction getFraction(ByteBuffer buffer) {
+        BigDecimal numerator = new BigDecimal(new BigInteger(getBytes(buffer)));
+        BigDecimal denominator = new BigDecimal(new BigInteger(getBytes(buffer)));
+
+        return BigFraction.valueOf(numerator).divide(BigFraction.valueOf(denominator));
+    }
+
+    // buffer grows when it's needed
+    private static ByteBuffer putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (buffer.remaining() < 5 + bytes.length) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + 5 + bytes.length));
+            buffer.flip();
+            buffer = grown.put(buffer);
+        }
+
+        int length = bytes.length;
+        while (length >= 0x80) {
+            buffer.put((byte) (length | 0x80));
+            length >>>= 7;
+        }
+
+        return buffer.put((byte) length).put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            length |= (b & 0x7F) << shift;
+
+            if (b >= 0)
+                break;
+            if (shift >= 28)
+                throw new IllegalArgumentException("Length is malformed");
+        }
+
+        if (length < 0 || length > buffer.remaining())
+            throw new IllegalArgumentException("Length is malformed");
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return bytes;
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.myzone.calculator.store;
+
+import com.myzone.calculator.model.CalculatorModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Persists sessions encoded by {@link SessionCodec} to a memory-mapped file of fixed-size slots, one slot per session. Opening the store only maps
+ * the file, sessions are decoded when they are loaded.
+ * <p>
+ * Every slot has two copies, a write goes to the older one, so the last written copy survives a torn write and the
+ * one with a valid checksum and the highest version is loaded. Registers which don't fit into a copy are written to
+ * the overflow file, every copy reuses its own overflow extent while the payload fits into it.
+ * <p>
+ * Different slots can be accessed concurrently, but the same slot has to be accessed by a single thread at a time.
+ *
+ * @author: myzone
+ * @date: 20.10.26 09:30
+ */
+public class SessionStore implements Closeable {
+
+    public static final int SLOT_SIZE = 256;
+
+    private static final int MAGIC = 0x53535452; // "SSTR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final int COPY_SIZE = SLOT_SIZE / 2;
+    // int checksum, int version, byte flags, 3 bytes unused, int payload length, long overflow offset,
+    // int overflow capacity
+    private static final int COPY_HEADER_SIZE = 28;
+    private static final int INLINE_CAPACITY = COPY_SIZE - COPY_HEADER_SIZE;
+
+    private static final int PRESENT = 1;
+    private static final int OVERFLOWED = 2;
+
+    private static final int MIN_OVERFLOW_EXTENT = 256;
+
+    private final FileChannel channel;
+    private final FileChannel overflowChannel;
+    private final MappedByteBuffer slots;
+    private final int slotCount;
+
+    /**
+     * Opens the store or creates a new one with slotCount slots, overflow file is placed next to it.
+     */
+    public SessionStore(@NotNull Path path, int slotCount) throws IOException {
+        if (slotCount < 1 || slotCount > (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE)
+            throw new IllegalArgumentException("Slot count has to be in [1, " + (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE + "]");
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            overflowChannel = FileChannel.open(
+                    Paths.get(path + ".overflow"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        try {
+            boolean created = channel.size() == 0;
+            slots = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * SLOT_SIZE);
+
+            if (created) {
+                slots.putInt(0, MAGIC);
+                slots.putInt(4, VERSION);
+                slots.putInt(8, slotCount);
+                slots.putInt(12, SLOT_SIZE);
+            } else if (slots.getInt(0) != MAGIC || slots.getInt(4) != VERSION || slots.getInt(12) != SLOT_SIZE) {
+                throw new IOException(path + " isn't a session store of version " + VERSION);
+            } else if (slots.getInt(8) != slotCount) {
+                throw new IOException(path + " has " + slots.getInt(8) + " slots, not " + slotCount);
+            }
+        } catch (IOException | RuntimeException e) {
+            overflowChannel.close();
+            channel.close();
+            throw e;
+        }
+
+        this.slotCount = slotCount;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * @param stateId id of the state of calculator state machine
+     */
+    public void store(int slot, int stateId, @NotNull CalculatorModel.Snapshot snapshot) throws IOException {
+        write(slot, PRESENT, SessionCodec.encode(stateId, snapshot));
+    }
+
+    /**
+     * @return stored session or null if the slot is empty or both its copies are corrupted
+     */
+    @Nullable
+    public StoredSession load(int slot) throws IOException {
+        int offset = slotOffset(slot);
+
+        int latest = latestCopy(offset);
+        if (latest < 0)
+            return null;
+
+        ByteBuffer copy = copy(offset, latest);
+        if ((copy.get(8) & PRESENT) == 0)
+            return null;
+
+        return SessionCodec.decode(readPayload(copy));
+    }
+
+    public void remove(int slot) throws IOException {
+        write(slot, 0, ByteBuffer.allocate(0));
+    }
+
+    /**
+     * Forces all writes to the storage device.
+     */
+    public void force() throws IOException {
+        overflowChannel.force(false);
+        slots.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            try {
+                overflowChannel.close();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    protected void write(int slot, int flags, ByteBuffer payload) throws IOException {
+        int offset = slotOffset(slot);
+
+        // the latest intact copy is kept, the other one may be torn, but its version still has to be exceeded
+        int latest = latestCopy(offset);
+        ByteBuffer copy = copy(offset, latest == 0 ? 1 : 0);
+        int version = Math.max(copy(offset, 0).getInt(4), copy(offset, 1).getInt(4)) + 1;
+
+        long overflowOffset = copy.getLong(16);
+        int overflowCapacity = copy.getInt(24);
+
+        int length = payload.remaining();
+        if (length > INLINE_CAPACITY) {
+            // extent of a torn copy can't be trusted
+            if (length > overflowCapacity || !isIntact(copy)) {
+                overflowCapacity = Math.max(MIN_OVERFLOW_EXTENT, Integer.highestOneBit(length - 1) << 1);
+                overflowOffset = allocateOverflow(overflowCapacity);
+            }
+
+            flags |= OVERFLOWED;
+            for (long position = overflowOffset; payload.hasRemaining(); ) {
+                position += overflowChannel.write(payload, position);
+            }
+            payload.flip();
+        } else {
+            copy.position(COPY_HEADER_SIZE);
+            copy.put(payload.duplicate());
+        }
+
+        copy.putInt(4, version);
+        copy.put(8, (byte) flags);
+        copy.putInt(12, length);
+        copy.putLong(16, overflowOffset);
+        copy.putInt(24, overflowCapacity);
+        copy.putInt(0, checksum(copy, payload));
+    }
+
+    /**
+     * @return index of the intact copy with the highest version or -1 if there is no such one
+     */
+    protected int latestCopy(int slotOffset) throws IOException {
+        ByteBuffer first = copy(slotOffset, 0);
+        ByteBuffer second = copy(slotOffset, 1);
+
+        boolean secondFirst = second.getInt(4) > first.getInt(4);
+        if (isIntact(secondFirst ? second : first))
+            return secondFirst ? 1 : 0;
+        if (isIntact(secondFirst ? first : second))
+            return secondFirst ? 0 : 1;
+
+        return -1;
+    }
+
+    private ByteBuffer copy(int slotOffset, int copy) {
+        ByteBuffer buffer = slots.duplicate();
+        buffer.position(slotOffset + copy * COPY_SIZE).limit(slotOffset + (copy + 1) * COPY_SIZE);
+
+        return buffer.slice();
+    }
+
+    private int slotOffset(int slot) {
+        if (slot < 0 || slot >= slotCount)
+            throw new IndexOutOfBoundsException("Store has " + slotCount + " slots, not " + slot);
+
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    // written copies have positive versions, payload length has to be consistent to be checked
+    private boolean isIntact(ByteBuffer copy) throws IOException {
+        int length = copy.getInt(12);
+
+        if (copy.getInt(4) <= 0 || length < 0)
+            return false;
+        if ((copy.get(8) & OVERFLOWED) != 0) {
+            if (length > copy.getInt(24) || copy.getLong(16) < 0 || copy.getLong(16) + length > overflowChannel.size())
+                return false;
+        } else if (length > INLINE_CAPACITY) {
+            return false;
+        }
+
+        return checksum(copy, readPayload(copy)) == copy.getInt(0);
+    }
+
+    private ByteBuffer readPayload(ByteBuffer copy) throws IOException {
+        int length = copy.getInt(12);
+
+        if ((copy.get(8) & OVERFLOWED) == 0) {
+            ByteBuffer payload = copy.duplicate();
+            payload.position(COPY_HEADER_SIZE).limit(COPY_HEADER_SIZE + length);
+
+            return payload.slice();
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        for (long position = copy.getLong(16); payload.hasRemaining(); ) {
+            if (overflowChannel.read(payload, position + payload.position()) < 0)
+                throw new IOException("Overflow extent at " + position + " is truncated");
+        }
+        payload.flip();
+
+        return payload;
+    }
+
+    private synchronized long allocateOverflow(int capacity) throws IOException {
+        long offset = overflowChannel.size();
+        overflowChannel.write(ByteBuffer.allocate(1), offset + capacity - 1);
+
+        return offset;
+    }
+
+    private static int checksum(ByteBuffer copy, ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+
+        ByteBuffer header = copy.duplicate();
+        header.position(4).limit(COPY_HEADER_SIZE);
+        crc.update(header);
+        crc.update(payload.duplicate());
+
+        return (int) crc.getValue();
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.myzone.calculator.store;
+
+import com.myzone.calculator.model.CalculatorModel;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers of a session together with id of its state, see
+ * {@link com.myzone.calculator.controller.CalculatorStateFactory#getStateId}.
+ *
+ * @author: myzone
+ * @date: 20.10.26 11:10
+ */
+public final class StoredSession {
+
+    private final int stateId;
+    private final CalculatorModel.Snapshot snapshot;
+
+    public StoredSession(int stateId, @NotNull CalculatorModel.Snapshot snapshot) {
+        this.stateId = stateId;
+        this.snapshot = snapshot;
+    }
+
+    public int getStateId() {
+        return stateId;
+    }
+
+    @NotNull
+    public CalculatorModel.Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+}
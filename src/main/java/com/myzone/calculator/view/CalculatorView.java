@@ -4,9 +4,10 @@ import com.google.common.collect.ImmutableMap;
 import com.myzone.calculator.controller.CalculatorStateFactory;
 import com.myzone.calculator.model.CalculatorModel;
 import com.myzone.calculator.model.Signal;
-import com.myzone.utils.math.BigFraction;
-import com.myzone.utils.statemachine.EventStateMachine;
-import com.myzone.utils.statemachine.StateMachine;
+import com.myzone.calculator.model.SignalDecoder;
+import com.myzone.utils.concurrent.Dispatcher;
+import com.myzone.utils.concurrent.Mailbox;
+import com.myzone.utils.concurrent.OverflowPolicy;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.event.Event;
@@ -30,9 +31,13 @@ import javafx.stage.StageStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.myzone.calculator.model.Signal.*;
 import static javafx.scene.text.Font.font;
@@ -41,7 +46,7 @@ import static javafx.scene.text.Font.font;
  * @author: myzone
  * @date: 03.02.13 22:38
  */
-public class CalculatorView extends Application {
+public class CalculatorView extends Application implements View {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CalculatorView.class);
 
@@ -52,40 +57,32 @@ public class CalculatorView extends Application {
     private static final Font DISPLAY_FONT = font("Ubuntu Mono", FontWeight.SEMI_BOLD, 18);
     private static final Font BUTTON_FONT = font("Consolas", FontWeight.SEMI_BOLD, 12);
 
+    // shared by all calculators of the process, idle calculators don't occupy any of its threads
+    private static final Dispatcher DISPATCHER = new Dispatcher(Runtime.getRuntime().availableProcessors(), 64);
+    private static final int SIGNAL_QUEUE_CAPACITY = 256;
+
+    // keys are typed as signal representations, '<' is backspace as well
+    private static final SignalDecoder KEY_DECODER = new SignalDecoder(ImmutableMap.of("<", BACK_SPACE));
+
     private final CalculatorModel model;
-    private final StateMachine<Signal> stateMachine;
+    private final DisplayBroadcaster broadcaster;
+    // created in init(), once launch parameters are known
+    private Mailbox<Signal> stateMachine;
+    private ExecutorService exactEvaluationExecutor;
 
-    private final ExecutorService stateMachineThread;
-    private final Map<String, SignalEmitter<KeyEvent>> signalEmittersMap;
+    private final Map<Signal, SignalEmitter<KeyEvent>> keyEmitters;
 
     private final TextField memoryDisplayTextField;
     private final TextField mainDisplayTextField;
 
     public CalculatorView() {
         model = new CalculatorModel();
-        stateMachine = new EventStateMachine<>(new CalculatorStateFactory(model, this));
-
-        stateMachineThread = Executors.newSingleThreadExecutor();
-        signalEmittersMap = ImmutableMap
-                .<String, SignalEmitter<KeyEvent>>builder()
-                .put("0", new SignalEmitter<>(DIGIT_0))
-                .put("1", new SignalEmitter<>(DIGIT_1))
-                .put("2", new SignalEmitter<>(DIGIT_2))
-                .put("3", new SignalEmitter<>(DIGIT_3))
-                .put("4", new SignalEmitter<>(DIGIT_4))
-                .put("5", new SignalEmitter<>(DIGIT_5))
-                .put("6", new SignalEmitter<>(DIGIT_6))
-                .put("7", new SignalEmitter<>(DIGIT_7))
-                .put("8", new SignalEmitter<>(DIGIT_8))
-                .put("9", new SignalEmitter<>(DIGIT_9))
-                .put("+", new SignalEmitter<>(PLUS))
-                .put("-", new SignalEmitter<>(MINUS))
-                .put("*", new SignalEmitter<>(MULTIPLY))
-                .put("/", new SignalEmitter<>(DIVIDE))
-                .put("=", new SignalEmitter<>(EVALUATE))
-                .put("<", new SignalEmitter<>(BACK_SPACE))
-                .put(".", new SignalEmitter<>(DOT))
-                .build();
+        broadcaster = new DisplayBroadcaster(model, ForkJoinPool.commonPool());
+
+        keyEmitters = new EnumMap<>(Signal.class);
+        for (Signal signal : Signal.values()) {
+            keyEmitters.put(signal, new SignalEmitter<>(signal));
+        }
 
         memoryDisplayTextField = TextFieldBuilder
                 .create()
@@ -110,12 +107,54 @@ public class CalculatorView extends Application {
                 .alignment(Pos.CENTER_RIGHT)
                 .text("0")
                 .build();
+
+        // own display is just one more observer, FX thread sees only the latest snapshot
+        broadcaster.subscribe(
+                (snapshot) -> {
+                    memoryDisplayTextField.setText(snapshot.isMemoryStored() ? "M" : "");
+                    mainDisplayTextField.setText(snapshot.getDisplayText());
+                },
+                Platform::runLater
+        );
     }
 
+    /**
+     * Progressive display is enabled by --progressive=true launch parameter, --overflow-policy chooses what happens
+     * to signals which don't fit into the state machine queue.
+     */
     @Override
-    public void start(Stage stage) throws Exception {
-        stateMachineThread.submit(stateMachine);
+    public void init() throws Exception {
+        if (Boolean.parseBoolean(getParameters().getNamed().get("progressive"))) {
+            // single own thread, so huge evaluations don't occupy the pool display updates are fanned out on; there
+            // is at most one pending evaluation, queued cancelled ones are skipped without running
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    1,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    (runnable) -> {
+                        Thread thread = new Thread(runnable, "exact-evaluation");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+            executor.allowCoreThreadTimeOut(true);
+
+            exactEvaluationExecutor = executor;
+        }
+
+        // dropped or coalesced signal changes the result, so by default FX thread waits once the queue is full
+        String overflowPolicy = getParameters().getNamed().get("overflow-policy");
+        stateMachine = DISPATCHER.register(
+                new CalculatorStateFactory(model, this, exactEvaluationExecutor),
+                SIGNAL_QUEUE_CAPACITY,
+                overflowPolicy != null ? OverflowPolicy.valueOf(overflowPolicy.toUpperCase()) : OverflowPolicy.BLOCK
+        );
+    }
 
+    @Override
+    public void start(Stage stage) throws Exception {
         VBox mainContainer = createColumn(
                 createRow(
                         memoryDisplayTextField,
@@ -172,38 +211,44 @@ public class CalculatorView extends Application {
         mainContainer.setOnKeyReleased((event) -> {
             switch (event.getCode()) {
                 case ENTER:
-                    signalEmittersMap.get("=").handle(event);
+                    keyEmitters.get(EVALUATE).handle(event);
                     break;
                 case BACK_SPACE:
-                    signalEmittersMap.get("<").handle(event);
+                    keyEmitters.get(BACK_SPACE).handle(event);
                     break;
                 default:
-                    SignalEmitter<KeyEvent> signalEmitter = signalEmittersMap.get(event.getText());
+                    Signal signal = KEY_DECODER.decodeToken(event.getText());
 
-                    if (signalEmitter != null) {
-                        signalEmitter.handle(event);
+                    if (signal != null) {
+                        keyEmitters.get(signal).handle(event);
                     }
             }
         });
 
         stage.setTitle("Calculator");
         stage.setIconified(true);
-        stage.setOnCloseRequest((event) -> stateMachineThread.shutdownNow());
+        stage.setOnCloseRequest((event) -> {
+            stateMachine.close();
+
+            if (exactEvaluationExecutor != null) {
+                exactEvaluationExecutor.shutdownNow();
+            }
+        });
         stage.setScene(new Scene(mainContainer));
         stage.setResizable(false);
         stage.show();
     }
 
+    @Override
     public void invalidate() {
-        try (CalculatorModel.Session session = model.createSession()) {
-            BigFraction memory = session.getMemory();
-            String displayText = session.getDisplayText();
-
-            Platform.runLater(() -> {
-                memoryDisplayTextField.setText(!memory.equals(BigFraction.ZERO) ? "M" : "");
-                mainDisplayTextField.setText(displayText);
-            });
-        }
+        broadcaster.invalidate();
+    }
+
+    /**
+     * Mirrored displays subscribe here.
+     */
+    public DisplayBroadcaster getBroadcaster() {
+        return broadcaster;
     }
 
     protected Button createButton(String text, Signal signal) {
@@ -251,14 +296,17 @@ public class CalculatorView extends Application {
     protected class SignalEmitter<E extends Event> extends StimulusEmitter<Signal, E> {
 
         public SignalEmitter(Signal signal) {
-            super(CalculatorView.this.stateMachine, signal);
+            // state machine is created after emitters
+            super((stimulus) -> CalculatorView.this.stateMachine.process(stimulus), signal);
         }
 
         @Override
         public void handle(E event) {
-            LOGGER.info("Signal {} has been emitted by {}", stimulus, event);
+            LOGGER.debug("Signal {} has been emitted by {}", stimulus, event);
 
-            super.handle(event);
+            if (!CalculatorView.this.stateMachine.process(stimulus)) {
+                LOGGER.warn("Signal {} has been dropped, {} signals are queued", stimulus, CalculatorView.this.stateMachine.getQueueDepth());
+            }
         }
     }
 
@@ -0,0 +1,149 @@
+package com.myzone.calculator.view;
+
+import com.myzone.calculator.model.CalculatorModel;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * View which publishes display snapshots of a model to any number of read-only observers.
+ * <p>
+ * Publishing only replaces the latest snapshot and schedules at most one fan-out task, so the state machine thread
+ * does the same work whatever the number of subscribers is. Every subscriber keeps a single pending snapshot
+ * instead of a queue: while it's busy newer snapshots replace older ones, so slow observers skip intermediate frames.
+ *
+ * @author: myzone
+ * @date: 20.10.26 15:10
+ */
+public class DisplayBroadcaster implements View {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DisplayBroadcaster.class);
+
+    protected final CalculatorModel model;
+    protected final Executor fanOutExecutor;
+
+    protected final AtomicReference<DisplaySnapshot> latest;
+    protected final AtomicBoolean fanOutScheduled;
+    protected final List<Subscription> subscriptions;
+
+    public DisplayBroadcaster(@NotNull CalculatorModel model, @NotNull Executor fanOutExecutor) {
+        this.model = model;
+        this.fanOutExecutor = fanOutExecutor;
+
+        latest = new AtomicReference<>(DisplaySnapshot.INITIAL);
+        fanOutScheduled = new AtomicBoolean(false);
+        subscriptions = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public void invalidate() {
+        try (CalculatorModel.Session session = model.createSession()) {
+            publish(new DisplaySnapshot(session.getDisplayText(), session.isMemoryNonZero()));
+        }
+    }
+
+    public void publish(@NotNull DisplaySnapshot snapshot) {
+        // most signals don't change anything visible
+        if (snapshot.equals(latest.getAndSet(snapshot)))
+            return;
+
+        if (fanOutScheduled.compareAndSet(false, true)) {
+            fanOutExecutor.execute(this::fanOut);
+        }
+    }
+
+    @NotNull
+    public DisplaySnapshot getLatest() {
+        return latest.get();
+    }
+
+    /**
+     * Subscribes observer, it's called on the given executor and never concurrently with itself. Latest snapshot
+     * is delivered right away.
+     */
+    @NotNull
+    public Subscription subscribe(@NotNull Consumer<? super DisplaySnapshot> observer, @NotNull Executor executor) {
+        Subscription subscription = new Subscription(observer, executor);
+
+        subscriptions.add(subscription);
+        subscription.offer(latest.get());
+
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    protected void fanOut() {
+        // flag is reset before reading, so any snapshot published after the read schedules another fan-out
+        fanOutScheduled.set(false);
+
+        DisplaySnapshot snapshot = latest.get();
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(snapshot);
+        }
+    }
+
+    public class Subscription implements AutoCloseable {
+
+        private final Consumer<? super DisplaySnapshot> observer;
+        private final Executor executor;
+
+        // non-null while delivery is scheduled or running
+        private final AtomicReference<DisplaySnapshot> pending;
+        private volatile DisplaySnapshot delivered;
+        private volatile boolean closed;
+
+        protected Subscription(Consumer<? super DisplaySnapshot> observer, Executor executor) {
+            this.observer = observer;
+            this.executor = executor;
+
+            pending = new AtomicReference<>();
+        }
+
+        protected void offer(DisplaySnapshot snapshot) {
+            if (pending.getAndSet(snapshot) == null) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        protected void deliver() {
+            DisplaySnapshot snapshot = pending.get();
+
+            if (!closed && !snapshot.equals(delivered)) {
+                try {
+                    observer.accept(snapshot);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Observer {} has failed to accept {}", observer, snapshot, e);
+                }
+
+                delivered = snapshot;
+            }
+
+            // something newer has been offered meanwhile
+            if (!pending.compareAndSet(snapshot, null)) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        public DisplaySnapshot getDelivered() {
+            return delivered;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+
+    }
+
+}
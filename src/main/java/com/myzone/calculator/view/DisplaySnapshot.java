@@ -0,0 +1,52 @@
+package com.myzone.calculator.view;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable content of calculator display, the only thing observers are able to see.
+ *
+ * @author: myzone
+ * @date: 20.10.26 15:05
+ */
+public final class DisplaySnapshot {
+
+    public static final DisplaySnapshot INITIAL = new DisplaySnapshot("0", false);
+
+    private final String displayText;
+    private final boolean memoryStored;
+
+    public DisplaySnapshot(@NotNull String displayText, boolean memoryStored) {
+        this.displayText = displayText;
+        this.memoryStored = memoryStored;
+    }
+
+    @NotNull
+    public String getDisplayText() {
+        return displayText;
+    }
+
+    public boolean isMemoryStored() {
+        return memoryStored;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        DisplaySnapshot that = (DisplaySnapshot) o;
+
+        return memoryStored == that.memoryStored && displayText.equals(that.displayText);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * displayText.hashCode() + (memoryStored ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return (memoryStored ? "M " : "") + displayText;
+    }
+
+}
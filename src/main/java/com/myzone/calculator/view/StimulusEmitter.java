@@ -1,27 +1,28 @@
 package com.myzone.calculator.view;
 
-import com.myzone.utils.statemachine.StateMachine;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Consumer;
+
 /**
  * @author: myzone
  * @date: 22.02.13 0:15
  */
 public class StimulusEmitter<S, E extends Event> implements EventHandler<E> {
 
-    protected final StateMachine<S> stateMachine;
+    protected final Consumer<S> stimulusConsumer;
     protected final S stimulus;
 
-    public StimulusEmitter(@NotNull StateMachine<S> stateMachine, @NotNull S stimulus) {
-        this.stateMachine = stateMachine;
+    public StimulusEmitter(@NotNull Consumer<S> stimulusConsumer, @NotNull S stimulus) {
+        this.stimulusConsumer = stimulusConsumer;
         this.stimulus = stimulus;
     }
 
     @Override
     public void handle(E e) {
-        stateMachine.process(stimulus);
+        stimulusConsumer.accept(stimulus);
     }
 
 }
@@ -0,0 +1,13 @@
+package com.myzone.calculator.view;
+
+/**
+ * Presents calculator model, is notified every time the model has been changed.
+ *
+ * @author: myzone
+ * @date: 19.10.26 23:55
+ */
+public interface View {
+
+    void invalidate();
+
+}
@@ -19,9 +19,10 @@ public class DoubleConverter implements Converter<String, Double> {
     private final double maxThreshold;
     private final double minThreshold;
 
-    private final DecimalFormat normalDecimalFormat;
-    private final DecimalFormat scientificDecimalFormat;
-    private final DecimalFormat bigScientificDecimalFormat;
+    // formats are reconfigured on every render, so each thread needs its own ones
+    private final ThreadLocal<DecimalFormat> normalDecimalFormat;
+    private final ThreadLocal<DecimalFormat> scientificDecimalFormat;
+    private final ThreadLocal<DecimalFormat> bigScientificDecimalFormat;
 
     public DoubleConverter(int maxLength) {
         this(maxLength, Double.POSITIVE_INFINITY, 0);
@@ -36,21 +37,24 @@ public class DoubleConverter implements Converter<String, Double> {
         decimalFormatSymbols.setDecimalSeparator('.');
         decimalFormatSymbols.setExponentSeparator("e");
 
-        normalDecimalFormat = new DecimalFormat();
+        DecimalFormat normalDecimalFormat = new DecimalFormat();
         normalDecimalFormat.setDecimalSeparatorAlwaysShown(false);
         normalDecimalFormat.setDecimalFormatSymbols(decimalFormatSymbols);
+        this.normalDecimalFormat = ThreadLocal.withInitial(() -> (DecimalFormat) normalDecimalFormat.clone());
 
-        scientificDecimalFormat = new DecimalFormat();
+        DecimalFormat scientificDecimalFormat = new DecimalFormat();
         scientificDecimalFormat.setDecimalSeparatorAlwaysShown(true);
         scientificDecimalFormat.setDecimalFormatSymbols(decimalFormatSymbols);
+        this.scientificDecimalFormat = ThreadLocal.withInitial(() -> (DecimalFormat) scientificDecimalFormat.clone());
 
         DecimalFormatSymbols bigDecimalFormatSymbols = new DecimalFormatSymbols();
         bigDecimalFormatSymbols.setDecimalSeparator('.');
         bigDecimalFormatSymbols.setExponentSeparator("e+");
 
-        bigScientificDecimalFormat = new DecimalFormat();
+        DecimalFormat bigScientificDecimalFormat = new DecimalFormat();
         bigScientificDecimalFormat.setDecimalSeparatorAlwaysShown(true);
         bigScientificDecimalFormat.setDecimalFormatSymbols(bigDecimalFormatSymbols);
+        this.bigScientificDecimalFormat = ThreadLocal.withInitial(() -> (DecimalFormat) bigScientificDecimalFormat.clone());
     }
 
     @Override
@@ -68,7 +72,7 @@ public class DoubleConverter implements Converter<String, Double> {
 
         DecimalFormat formatter;
         if (abs(source) >= maxThreshold) {
-            formatter = bigScientificDecimalFormat;
+            formatter = bigScientificDecimalFormat.get();
             formatter.applyPattern(format(
                     "0.%sE00",
                     repeat("#", maxLength - 1)
@@ -76,7 +80,7 @@ public class DoubleConverter implements Converter<String, Double> {
             formatter.setDecimalSeparatorAlwaysShown(true);
             formatter.setRoundingMode(RoundingMode.UP);
         } else if (abs(source) <= minThreshold) {
-            formatter = scientificDecimalFormat;
+            formatter = scientificDecimalFormat.get();
             formatter.applyPattern(format(
                     "0.%sE00",
                     repeat("#", maxLength - 1)
@@ -84,7 +88,7 @@ public class DoubleConverter implements Converter<String, Double> {
             formatter.setDecimalSeparatorAlwaysShown(true);
             formatter.setRoundingMode(RoundingMode.HALF_UP);
         } else {
-            formatter = normalDecimalFormat;
+            formatter = normalDecimalFormat.get();
             String pattern = format(
                     "%s0.#%s",
                     (floor(source) == 0D ? "#" : ""),
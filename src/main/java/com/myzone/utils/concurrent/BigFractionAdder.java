@@ -0,0 +1,156 @@
+package com.myzone.utils.concurrent;
+
+import com.myzone.utils.math.BigFraction;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Exact accumulator of {@link BigFraction}s for many concurrent writers, in the same way as
+ * {@link java.util.concurrent.atomic.LongAdder} does it for longs. Additions are striped across cells, each thread
+ * sticks to its cell while it isn't contended. Integers which fit into long are accumulated by a single CAS, anything
+ * else or overflowing cell goes to the exact cell of the stripe. Cells are summed only by {@link #sum()} and by
+ * {@link #isNonZero()} if something has been added since its previous call.
+ * <p>
+ * Like {@link java.util.concurrent.atomic.LongAdder#reset()}, {@link #set(BigFraction)} isn't atomic: additions
+ * which are concurrent with it may be counted either before or after it.
+ *
+ * @author: myzone
+ * @date: 20.10.26 00:50
+ */
+public class BigFractionAdder {
+
+    // keeps neighbour cells on different cache lines
+    private static final int PADDING = 16;
+
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    protected final int stripes;
+    protected final AtomicLongArray smallCells;
+    protected final AtomicReferenceArray<BigFraction> exactCells;
+    protected final AtomicReference<BigFraction> base;
+
+    // set by writers after they've updated a cell and reset before cells are summed, so a sum which misses
+    // an update is never cached as the actual one
+    private volatile boolean changed;
+    // guarded by this
+    private boolean nonZero;
+
+    public BigFractionAdder() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public BigFractionAdder(int concurrencyLevel) {
+        if (concurrencyLevel < 1)
+            throw new IllegalArgumentException("Concurrency level has to be positive");
+
+        stripes = Integer.highestOneBit(concurrencyLevel * 2 - 1);
+        smallCells = new AtomicLongArray(stripes * PADDING);
+        exactCells = new AtomicReferenceArray<>(stripes * PADDING);
+        base = new AtomicReference<>(BigFraction.ZERO);
+
+        for (int i = 0; i < stripes; i++) {
+            exactCells.set(i * PADDING, BigFraction.ZERO);
+        }
+
+        changed = false;
+        nonZero = false;
+    }
+
+    public void add(@NotNull BigFraction value) {
+        int[] probe = PROBE.get();
+
+        if (value.getDenominator().equals(BigInteger.ONE) && value.getNumerator().bitLength() < Long.SIZE - 1) {
+            long small = value.getNumerator().longValue();
+
+            while (true) {
+                int index = (probe[0] & (stripes - 1)) * PADDING;
+                long current = smallCells.get(index);
+                long next = current + small;
+
+                // overflow, the stripe will keep it exactly
+                if (((current ^ next) & (small ^ next)) < 0)
+                    break;
+
+                if (smallCells.compareAndSet(index, current, next)) {
+                    markChanged();
+                    return;
+                }
+
+                probe[0] = advance(probe[0]);
+            }
+        }
+
+        while (true) {
+            int index = (probe[0] & (stripes - 1)) * PADDING;
+            BigFraction current = exactCells.get(index);
+
+            if (exactCells.compareAndSet(index, current, current.add(value))) {
+                markChanged();
+                return;
+            }
+
+            probe[0] = advance(probe[0]);
+        }
+    }
+
+    public void subtract(@NotNull BigFraction value) {
+        add(value.negate());
+    }
+
+    /**
+     * The same as comparing {@link #sum()} with zero, but cheap while nothing is added.
+     */
+    public synchronized boolean isNonZero() {
+        if (changed) {
+            changed = false;
+            nonZero = sum().getNumerator().signum() != 0;
+        }
+
+        return nonZero;
+    }
+
+    @NotNull
+    public BigFraction sum() {
+        BigInteger smallSum = BigInteger.ZERO;
+        BigFraction exactSum = base.get();
+
+        for (int i = 0; i < stripes; i++) {
+            smallSum = smallSum.add(BigInteger.valueOf(smallCells.get(i * PADDING)));
+            exactSum = exactSum.add(exactCells.get(i * PADDING));
+        }
+
+        return exactSum.add(BigFraction.valueOf(new BigDecimal(smallSum)));
+    }
+
+    public void set(@NotNull BigFraction value) {
+        for (int i = 0; i < stripes; i++) {
+            smallCells.set(i * PADDING, 0);
+            exactCells.set(i * PADDING, BigFraction.ZERO);
+        }
+
+        base.set(value);
+        markChanged();
+    }
+
+    private void markChanged() {
+        // most of writers find it already set, so they don't contend on writing it
+        if (!changed) {
+            changed = true;
+        }
+    }
+
+    private static int advance(int probe) {
+        // xorshift, the same as LongAdder rehashes contended threads
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.myzone.utils.concurrent;
+
+import com.myzone.utils.statemachine.State;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiplexes many state machines over a small shared pool of worker threads. Each registered state machine
+ * gets its own {@link Mailbox}, which is scheduled on the pool only while it has pending stimuli.
+ *
+ * @author: myzone
+ * @date: 19.10.26 17:50
+ */
+public class Dispatcher implements AutoCloseable {
+
+    private static final AtomicInteger DISPATCHER_COUNTER = new AtomicInteger(0);
+    private static final int DEFAULT_MAILBOX_CAPACITY = 1024;
+
+    protected final ExecutorService workers;
+    protected final int throughput;
+
+    public Dispatcher(int parallelism, int throughput) {
+        if (parallelism <= 0 || throughput <= 0)
+            throw new IllegalArgumentException("parallelism and throughput should be positive");
+
+        this.throughput = throughput;
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                parallelism,
+                parallelism,
+                1,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new WorkerThreadFactory(DISPATCHER_COUNTER.incrementAndGet())
+        );
+        // idle dispatcher shouldn't hold any thread
+        executor.allowCoreThreadTimeOut(true);
+
+        workers = executor;
+    }
+
+    @NotNull
+    public <S> Mailbox<S> register(@NotNull State.Factory<S> factory) {
+        return register(factory, DEFAULT_MAILBOX_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    @NotNull
+    public <S> Mailbox<S> register(@NotNull State.Factory<S> factory, int capacity, @NotNull OverflowPolicy overflowPolicy) {
+        return new Mailbox<>(this, factory.getStartState(), capacity, overflowPolicy);
+    }
+
+    public int getThroughput() {
+        return throughput;
+    }
+
+    protected void schedule(@NotNull Mailbox<?> mailbox) {
+        workers.execute(mailbox);
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final int dispatcherId;
+        private final AtomicInteger threadCounter;
+
+        private WorkerThreadFactory(int dispatcherId) {
+            this.dispatcherId = dispatcherId;
+            this.threadCounter = new AtomicInteger(0);
+        }
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "dispatcher-" + dispatcherId + "-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+
+    }
+
+}
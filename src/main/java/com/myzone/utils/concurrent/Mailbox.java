@@ -0,0 +1,219 @@
+package com.myzone.utils.concurrent;
+
+import com.myzone.utils.statemachine.State;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free bounded mailbox of a single state machine. Stimuli are processed strictly in order of their arrival
+ * and never by two workers at the same time, at most {@link Dispatcher#getThroughput()} of them per scheduling
+ * turn. Stimuli which don't fit are handled according to {@link OverflowPolicy}.
+ *
+ * @author: myzone
+ * @date: 19.10.26 17:52
+ */
+public class Mailbox<S> implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Mailbox.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    protected final Dispatcher dispatcher;
+    protected final MpscRingBuffer<S> stimuli;
+    protected final OverflowPolicy overflowPolicy;
+    protected final AtomicReference<S> coalescedStimulus;
+    protected final AtomicBoolean scheduled;
+
+    protected final LongAdder acceptedCount;
+    protected final LongAdder droppedCount;
+    protected final LongAdder coalescedCount;
+    private volatile int maxQueueDepth;
+
+    // accessed only by the worker which owns scheduled flag
+    private State<S> state;
+    private volatile boolean closed;
+
+    protected Mailbox(@NotNull Dispatcher dispatcher, @NotNull State<S> startState, int capacity, @NotNull OverflowPolicy overflowPolicy) {
+        this.dispatcher = dispatcher;
+        this.stimuli = new MpscRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.coalescedStimulus = new AtomicReference<>(null);
+        this.scheduled = new AtomicBoolean(false);
+
+        this.acceptedCount = new LongAdder();
+        this.droppedCount = new LongAdder();
+        this.coalescedCount = new LongAdder();
+        this.maxQueueDepth = 0;
+
+        this.state = startState;
+        this.closed = false;
+    }
+
+    /**
+     * @return false if stimulus has been dropped
+     */
+    public boolean process(@NotNull S stimulus) {
+        if (closed)
+            return false;
+
+        if (!enqueue(stimulus)) {
+            droppedCount.increment();
+            return false;
+        }
+
+        updateMaxQueueDepth();
+        // it's discarded and counted as dropped then
+        if (!trySchedule())
+            return false;
+
+        acceptedCount.increment();
+
+        return true;
+    }
+
+    public void close() {
+        closed = true;
+        // worker discards everything left in the buffer
+        if (!isEmpty()) {
+            trySchedule();
+        }
+    }
+
+    public boolean isIdle() {
+        return !scheduled.get() && isEmpty();
+    }
+
+    public int getQueueDepth() {
+        return stimuli.size() + (coalescedStimulus.get() != null ? 1 : 0);
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public int getCapacity() {
+        return stimuli.getCapacity();
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < dispatcher.getThroughput(); i++) {
+                S stimulus = nextStimulus();
+                if (stimulus == null)
+                    break;
+
+                if (closed)
+                    continue;
+
+                try {
+                    state = state.react(stimulus);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Stimulus {} has not been processed by {}", stimulus, state, e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+
+        // stimulus could have been offered after the last poll but before scheduled flag was released
+        if (!isEmpty()) {
+            trySchedule();
+        }
+    }
+
+    protected boolean enqueue(@NotNull S stimulus) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                while (!stimuli.offer(stimulus)) {
+                    if (closed || Thread.currentThread().isInterrupted())
+                        return false;
+
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                return true;
+
+            case DROP:
+                return stimuli.offer(stimulus);
+
+            case COALESCE:
+                // once something is coalesced, everything goes there until worker picks it up to keep the order
+                if (coalescedStimulus.get() == null && stimuli.offer(stimulus))
+                    return true;
+
+                if (coalescedStimulus.getAndSet(stimulus) != null) {
+                    coalescedCount.increment();
+                }
+                return true;
+        }
+
+        throw new IllegalStateException(overflowPolicy + " is not supported");
+    }
+
+    protected S nextStimulus() {
+        S stimulus = stimuli.poll();
+
+        if (stimulus == null && stimuli.isEmpty()) {
+            stimulus = coalescedStimulus.getAndSet(null);
+        }
+
+        return stimulus;
+    }
+
+    protected boolean isEmpty() {
+        return stimuli.isEmpty() && coalescedStimulus.get() == null;
+    }
+
+    /**
+     * @return false if dispatcher has been closed, the mailbox is closed then as well
+     */
+    protected boolean trySchedule() {
+        if (!scheduled.compareAndSet(false, true))
+            return true;
+
+        try {
+            dispatcher.schedule(this);
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Dispatcher has been closed, {} stimuli are discarded", getQueueDepth());
+
+            // nothing is going to process them anymore
+            closed = true;
+            while (nextStimulus() != null) {
+                droppedCount.increment();
+            }
+            scheduled.set(false);
+
+            return false;
+        }
+    }
+
+    private void updateMaxQueueDepth() {
+        int depth = getQueueDepth();
+
+        // benign race, it's just a metric
+        if (depth > maxQueueDepth) {
+            maxQueueDepth = depth;
+        }
+    }
+
+}
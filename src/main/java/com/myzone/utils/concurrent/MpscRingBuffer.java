@@ -0,0 +1,99 @@
+package com.myzone.utils.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer queue. Every slot carries a sequence number, so producers
+ * only compete for the tail counter and consumer never touches it (see D. Vyukov's bounded queue).
+ *
+ * @author: myzone
+ * @date: 19.10.26 18:20
+ */
+public class MpscRingBuffer<E> {
+
+    protected final int capacity;
+    protected final int mask;
+
+    protected final AtomicReferenceArray<E> elements;
+    protected final AtomicLongArray sequences;
+    protected final AtomicLong tail;
+
+    // written only by consumer, read by anyone for metrics
+    protected volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity should be positive");
+
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1; // rounded up to power of two
+        this.mask = this.capacity - 1;
+
+        elements = new AtomicReferenceArray<>(this.capacity);
+        sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        tail = new AtomicLong(0);
+        head = 0;
+    }
+
+    /**
+     * @return false if buffer is full
+     */
+    public boolean offer(@NotNull E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Should be called only by the single consumer.
+     *
+     * @return null if buffer is empty or the next element is not published yet
+     */
+    @Nullable
+    public E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+
+        if (sequences.get(index) != position + 1)
+            return null;
+
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+
+        return element;
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.myzone.utils.concurrent;
+
+/**
+ * Defines what happens with stimulus which doesn't fit into full {@link Mailbox}.
+ *
+ * @author: myzone
+ * @date: 19.10.26 18:24
+ */
+public enum OverflowPolicy {
+    /**
+     * Producer waits until there is free space. It's the only lossless policy, UI threads stall only while
+     * the queue is full.
+     */
+    BLOCK,
+    /**
+     * Stimulus is rejected.
+     */
+    DROP,
+    /**
+     * Overflowing stimuli are collapsed into single pending one (the latest wins), which is processed
+     * right after everything that has been queued before.
+     */
+    COALESCE
+}
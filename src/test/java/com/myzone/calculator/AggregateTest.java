@@ -0,0 +1,72 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.model.Aggregate;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.utils.math.BigFraction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 02:00
+ */
+public class AggregateTest {
+
+    @Test
+    public void testSumIsTheSameAsSequentialAddition() {
+        Random random = new Random(5);
+        List<BigFraction> values = new ArrayList<>();
+        BigFraction expected = BigFraction.ZERO;
+
+        for (int i = 0; i < 5000; i++) {
+            BigFraction value = random.nextInt(10) == 0
+                    ? valueOf(random.nextInt(1000) - 500, 1 + random.nextInt(12))
+                    : valueOf(String.valueOf((random.nextInt(2_000_000) - 1_000_000) / 100D));
+
+            values.add(value);
+            expected = CalculatorModel.Operation.ADD.evaluate(expected, value);
+        }
+
+        assertEquals(expected, Aggregate.SUM.tryApply(values));
+    }
+
+    @Test
+    public void testProductIsTheSameAsSequentialMultiplication() {
+        Random random = new Random(6);
+        List<BigFraction> values = new ArrayList<>();
+        BigFraction expected = BigFraction.ONE;
+
+        for (int i = 0; i < 600; i++) {
+            BigFraction value = random.nextBoolean() ? valueOf(3 + random.nextInt(5), 2 + random.nextInt(5)) : valueOf(1, 1 + random.nextInt(3));
+
+            values.add(value);
+            expected = expected.multiply(value);
+        }
+
+        assertEquals(expected, Aggregate.PRODUCT.tryApply(values));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(BigFraction.ZERO, Aggregate.SUM.tryApply(Collections.<BigFraction>emptyList()));
+        assertEquals(BigFraction.ONE, Aggregate.PRODUCT.tryApply(Collections.<BigFraction>emptyList()));
+    }
+
+    @Test
+    public void testOverflow() {
+        List<BigFraction> values = new ArrayList<>(Collections.nCopies(1000, BigFraction.TEN.pow(10)));
+
+        assertNull(Aggregate.PRODUCT.tryApply(values));
+        assertNull(Aggregate.SUM.tryApply(Arrays.asList(BigFraction.TEN.pow(249), BigFraction.TEN.pow(249).multiply(valueOf(9)))));
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.batch.BatchEvaluator;
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.controller.SignalReplayer;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 05:50
+ */
+public class BatchEvaluatorTest {
+
+    @Test
+    public void testLines() throws IOException {
+        assertEquals(
+                "15\n0\n5\n3\n-4\n0.5\n112\n1\n0\n" + BatchEvaluator.INVALID + "\n2\n",
+                evaluate(new BatchEvaluator(1), "12+3=\n\n2+3=\n9√\n4±\n2 1/x\n123←←12\n1CE1\nM+C\n2x\n2MS C MR\r\n")
+        );
+    }
+
+    @Test
+    public void testOrderAndBlockBoundaries() throws IOException {
+        Signal[] signals = Signal.values();
+        Random random = new Random(44);
+
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            int length = i % 1000 == 0 ? 30000 : random.nextInt(20);
+
+            Signal[] session = new Signal[length];
+            for (int j = 0; j < length; j++) {
+                session[j] = signals[random.nextInt(signals.length)];
+                input.append(session[j].getRepresentation());
+            }
+            input.append('\n');
+
+            expected.append(evaluate(session)).append('\n');
+        }
+
+        assertEquals(expected.toString(), evaluate(new BatchEvaluator(4), input.toString()));
+    }
+
+    private static String evaluate(Signal... signals) {
+        CalculatorModel model = new CalculatorModel(CalculatorModel.ConcurrencyMode.THREAD_CONFINED);
+        new SignalReplayer(new CalculatorStateFactory(model, () -> {
+        })).replay(signals);
+
+        try (CalculatorModel.Session session = model.createSession()) {
+            return session.getDisplayText();
+        }
+    }
+
+    private static String evaluate(BatchEvaluator evaluator, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        evaluator.evaluate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
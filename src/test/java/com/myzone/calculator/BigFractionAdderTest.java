@@ -0,0 +1,154 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.EvaluationBudget;
+import com.myzone.calculator.model.Signal;
+import com.myzone.utils.concurrent.BigFractionAdder;
+import com.myzone.utils.math.BigFraction;
+import com.myzone.utils.statemachine.TestingEventStateMachine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.myzone.calculator.model.Signal.*;
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 01:10
+ */
+public class BigFractionAdderTest {
+
+    private static final BigFraction[] VALUES = {
+            valueOf(1),
+            valueOf(-3),
+            valueOf(1, 3),
+            valueOf(Long.MAX_VALUE - 1),
+            BigFraction.TEN.pow(30),
+            valueOf(-7, 2)
+    };
+
+    @Test
+    public void testConcurrentAdditionsAreExact() throws Exception {
+        BigFractionAdder adder = new BigFractionAdder(4);
+        int threads = 8;
+        int iterations = 5_000;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                for (int i = 0; i < iterations; i++) {
+                    adder.add(VALUES[i % VALUES.length]);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        BigFraction expected = BigFraction.ZERO;
+        for (int i = 0; i < iterations; i++) {
+            expected = expected.add(VALUES[i % VALUES.length]);
+        }
+        expected = expected.multiply(valueOf(threads));
+
+        assertEquals(expected, adder.sum());
+    }
+
+    @Test
+    public void testSet() {
+        BigFractionAdder adder = new BigFractionAdder();
+
+        adder.add(valueOf(5));
+        adder.add(valueOf(1, 2));
+        adder.set(valueOf(2, 3));
+        adder.subtract(valueOf(1));
+
+        assertEquals(valueOf(-1, 3), adder.sum());
+    }
+
+    @Test
+    public void testModelsShareMemory() {
+        BigFractionAdder memory = new BigFractionAdder();
+        CalculatorModel first = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING, EvaluationBudget.UNLIMITED, memory);
+        CalculatorModel second = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING, EvaluationBudget.UNLIMITED, memory);
+
+        run(first, DIGIT_7, MEMORY_PLUS);
+        run(second, DIGIT_2, MEMORY_MINUS, CLEAR, MEMORY_RESTORE);
+
+        try (CalculatorModel.Session session = second.createSession()) {
+            assertEquals("5", session.getDisplayText());
+            assertEquals(valueOf(5), session.getDisplayData());
+        }
+        try (CalculatorModel.Session session = first.createSession()) {
+            assertEquals(valueOf(5), session.getMemory());
+        }
+    }
+
+    @Test
+    public void testIsNonZero() {
+        BigFractionAdder adder = new BigFractionAdder();
+
+        assertFalse(adder.isNonZero());
+
+        adder.add(valueOf(1, 3));
+        assertTrue(adder.isNonZero());
+
+        adder.add(valueOf(-1, 3));
+        assertFalse(adder.isNonZero());
+
+        adder.set(BigFraction.TEN);
+        assertTrue(adder.isNonZero());
+        assertTrue(adder.isNonZero());
+    }
+
+    @Test
+    public void testRestoreDoesNotTouchSharedMemory() {
+        BigFractionAdder memory = new BigFractionAdder();
+        CalculatorModel first = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING, EvaluationBudget.UNLIMITED, memory);
+        CalculatorModel second = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING, EvaluationBudget.UNLIMITED, memory);
+
+        run(first, DIGIT_7, MEMORY_PLUS);
+
+        CalculatorModel.Snapshot snapshot;
+        try (CalculatorModel.Session session = first.createSession()) {
+            snapshot = session.snapshot();
+        }
+        assertEquals(valueOf(7), snapshot.getMemory());
+
+        run(second, DIGIT_2, MEMORY_PLUS);
+
+        try (CalculatorModel.Session session = first.createSession()) {
+            session.restore(snapshot);
+
+            assertEquals("7", session.getDisplayText());
+            assertEquals(valueOf(9), session.getMemory());
+            assertTrue(session.isMemoryNonZero());
+        }
+    }
+
+    private static void run(CalculatorModel model, Signal... signals) {
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, () -> {
+        }));
+
+        assertEquals(0, stateMachine.run(signals).length);
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.server.CalculatorServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import static com.myzone.calculator.model.Signal.*;
+import static com.myzone.calculator.server.CalculatorProtocol.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 04:55
+ */
+public class CalculatorServerTest {
+
+    private CalculatorServer server;
+    private Thread serverThread;
+    private SocketChannel client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new CalculatorServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        serverThread = new Thread(server, "calculator-server");
+        serverThread.start();
+
+        client = SocketChannel.open(server.getLocalAddress());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+        serverThread.join(1000);
+    }
+
+    @Test
+    public void testPipelinedSessions() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(256);
+        open(request, 1);
+        signals(request, 1, DIGIT_1, PLUS, DIGIT_2, EVALUATE);
+        open(request, 2);
+        signals(request, 2, DIGIT_9, MULTIPLY, DIGIT_9, EVALUATE);
+        signals(request, 1, MEMORY_PLUS);
+        send(request);
+
+        assertUpdate(1, 0, "0");
+        assertUpdate(1, 0, "3");
+        assertUpdate(2, 0, "0");
+        assertUpdate(2, 0, "81");
+        assertUpdate(1, MEMORY_FLAG, "3");
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(256);
+        signals(request, 7, DIGIT_1);
+        open(request, 7);
+        open(request, 7);
+        request.put(SIGNALS).putInt(7).putShort((short) 2).put((byte) DIGIT_5.ordinal()).put((byte) 120);
+        signals(request, 7, DIGIT_3);
+        send(request);
+
+        assertFailure(7, UNKNOWN_SESSION);
+        assertUpdate(7, 0, "0");
+        assertFailure(7, SESSION_ALREADY_OPEN);
+        assertFailure(7, UNKNOWN_SIGNAL);
+        assertUpdate(7, 0, "53");
+    }
+
+    @Test
+    public void testManySignals() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(1024 * 1024);
+        open(request, 1);
+        for (int i = 0; i < 2_000; i++) {
+            signals(request, 1, DIGIT_1, PLUS, DIGIT_1, EVALUATE, CLEAR);
+        }
+        signals(request, 1, DIGIT_4, DIGIT_2);
+        send(request);
+
+        assertUpdate(1, 0, "0");
+        for (int i = 0; i < 2_000; i++) {
+            assertUpdate(1, 0, "0");
+        }
+        assertUpdate(1, 0, "42");
+    }
+
+    @Test
+    public void testExportAndImport() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(256);
+        open(request, 1);
+        signals(request, 1, DIGIT_2, MEMORY_STORE, PLUS, DIGIT_3);
+        request.put(EXPORT).putInt(1);
+        signals(request, 1, DIGIT_1);
+        send(request);
+
+        assertUpdate(1, 0, "0");
+        assertUpdate(1, MEMORY_FLAG, "3");
+
+        ByteBuffer header = read(7);
+        assertEquals(STATE, header.get());
+        assertEquals(1, header.getInt());
+        byte[] encodedSession = read(header.getShort() & 0xFFFF).array();
+        assertFailure(1, UNKNOWN_SESSION);
+
+        request = ByteBuffer.allocate(256);
+        request.put(IMPORT).putInt(2).putShort((short) encodedSession.length).put(encodedSession);
+        signals(request, 2, EVALUATE);
+        request.put(IMPORT).putInt(3).putShort((short) 2).put((byte) 1).put((byte) 1);
+        send(request);
+
+        assertUpdate(2, MEMORY_FLAG, "3");
+        assertUpdate(2, MEMORY_FLAG, "5");
+        assertFailure(3, MALFORMED_SESSION);
+    }
+
+    private static void open(ByteBuffer request, int sessionId) {
+        request.put(OPEN).putInt(sessionId);
+    }
+
+    private static void signals(ByteBuffer request, int sessionId, Signal... signals) {
+        request.put(SIGNALS).putInt(sessionId).putShort((short) signals.length);
+        for (Signal signal : signals) {
+            request.put((byte) signal.ordinal());
+        }
+    }
+
+    private void send(ByteBuffer request) throws IOException {
+        request.flip();
+        while (request.hasRemaining()) {
+            client.write(request);
+        }
+    }
+
+    private void assertUpdate(int sessionId, int flags, String displayText) throws IOException {
+        ByteBuffer header = read(8);
+        assertEquals(UPDATE, header.get());
+        assertEquals(sessionId, header.getInt());
+        assertEquals(flags, header.get());
+
+        ByteBuffer text = read(header.getShort());
+        assertEquals(displayText, new String(text.array(), StandardCharsets.UTF_8));
+    }
+
+    private void assertFailure(int sessionId, byte code) throws IOException {
+        ByteBuffer answer = read(6);
+        assertEquals(FAILURE, answer.get());
+        assertEquals(sessionId, answer.getInt());
+        assertEquals(code, answer.get());
+    }
+
+    private ByteBuffer read(int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (client.read(buffer) < 0)
+                throw new IOException("Connection has been closed");
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+}
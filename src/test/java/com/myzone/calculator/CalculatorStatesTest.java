@@ -6,9 +6,14 @@ import com.myzone.calculator.model.Signal;
 import com.myzone.calculator.view.CalculatorView;
 import com.myzone.utils.math.BigFraction;
 import com.myzone.utils.statemachine.TestingEventStateMachine;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import static com.myzone.calculator.model.Signal.*;
 import static com.myzone.utils.math.BigFraction.valueOf;
 import static org.junit.Assert.*;
@@ -24,6 +29,7 @@ public class CalculatorStatesTest {
     private volatile TestingCalculatorView view;
     private volatile TestingCalculatorModel model;
     private volatile TestingEventStateMachine<Signal> stateMachine;
+    private final List<Signal> signals = new ArrayList<>();
 
     @Before
     public void setUp() throws Exception {
@@ -45,14 +51,19 @@ public class CalculatorStatesTest {
         stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, mockedView));
     }
 
+    @After
+    public void tearDown() throws Exception {
+        SignalSequenceOptimizerTest.assertOptimizedEquivalent(signals.toArray(new Signal[signals.size()]));
+    }
+
     @Test
     public void testTwoMultiplyTwo() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 MULTIPLY,
                 DIGIT_2,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("4", view.getDisplayText());
@@ -62,14 +73,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testTwoMultiplyTwoWithManyEvaluations() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 MULTIPLY,
                 DIGIT_2,
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("16", view.getDisplayText());
@@ -79,13 +90,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testTwoMultiplyWithManyEvaluations() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 MULTIPLY,
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("16", view.getDisplayText());
@@ -95,11 +106,11 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSquare() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 MULTIPLY,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("4", view.getDisplayText());
@@ -109,7 +120,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyAdds() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_5,
                 PLUS,
@@ -121,7 +132,7 @@ public class CalculatorStatesTest {
                 PLUS,
                 DIGIT_5,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("25", view.getDisplayText());
@@ -131,7 +142,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyAddsAndEvaluations() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_5,
                 PLUS,
@@ -146,7 +157,7 @@ public class CalculatorStatesTest {
                 PLUS,
                 DIGIT_5,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("25", view.getDisplayText());
@@ -156,7 +167,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyStrangeEvaluations() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_5,
                 PLUS,
@@ -170,7 +181,7 @@ public class CalculatorStatesTest {
                 DIGIT_2,
                 DIGIT_0,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("25", view.getDisplayText());
@@ -180,7 +191,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyEvaluations() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_5,
                 PLUS,
@@ -190,7 +201,7 @@ public class CalculatorStatesTest {
                 PLUS,
                 DIGIT_7,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("10", view.getDisplayText());
@@ -200,7 +211,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyEvaluationsWithDot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_5,
                 PLUS,
@@ -211,7 +222,7 @@ public class CalculatorStatesTest {
                 PLUS,
                 DIGIT_3,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("3.2", view.getDisplayText());
@@ -221,7 +232,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testComplexEvaluationWithDot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DOT,
                 DIGIT_3,
                 PLUS,
@@ -236,7 +247,7 @@ public class CalculatorStatesTest {
                 DIGIT_4,
                 DIGIT_7,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0.00363945578231", view.getDisplayText());
@@ -246,7 +257,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPercentAfterEvaluation() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DIGIT_0,
                 PLUS,
@@ -254,7 +265,7 @@ public class CalculatorStatesTest {
                 DIGIT_5,
                 EVALUATE,
                 PERCENT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("6.25", view.getDisplayText());
@@ -264,7 +275,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testEvaluationAfterPercentAfterEvaluation() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DIGIT_0,
                 PLUS,
@@ -273,7 +284,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 PERCENT,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("21.25", view.getDisplayText());
@@ -283,11 +294,11 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPercentWithOneArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_1,
                 PERCENT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -297,13 +308,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPercent() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_4,
                 DIGIT_8,
                 MINUS,
                 DIGIT_2,
                 PERCENT
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -314,14 +325,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testEvaluationAfterPercent() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_4,
                 DIGIT_8,
                 MINUS,
                 DIGIT_2,
                 PERCENT,
                 EVALUATE
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -332,13 +343,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyDots() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_0,
                 DOT,
                 DOT,
                 DOT
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -349,13 +360,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyEvaluationsWithPositiveNumber() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -366,14 +377,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyEvaluationsWithNegativeNumber() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 REVERSE,
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -384,13 +395,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testZeroDivision() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 DIVIDE,
                 DIGIT_0,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("ERR", view.getDisplayText());
@@ -398,12 +409,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSquareRootFromNegativeNumber() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 REVERSE,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("ERR", view.getDisplayText());
@@ -411,7 +422,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testComplexSquareRootFromNegativeNumber() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 SQUARE_ROOT,
@@ -420,7 +431,7 @@ public class CalculatorStatesTest {
                 DIGIT_3,
                 EVALUATE,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("ERR", view.getDisplayText());
@@ -428,13 +439,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSquareRoot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_9,
                 SQUARE_ROOT,
                 PLUS,
                 DIGIT_3,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("6", view.getDisplayText());
@@ -444,12 +455,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNumberAfterSquareRoot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_9,
                 SQUARE_ROOT,
                 DIGIT_3,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("3", view.getDisplayText());
@@ -459,12 +470,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testDoubleSquareRoot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 SQUARE_ROOT,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("2.7355647997348", view.getDisplayText());
@@ -474,13 +485,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testTripleSquareRoot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 SQUARE_ROOT,
                 SQUARE_ROOT,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1.6539542919122", view.getDisplayText());
@@ -490,7 +501,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testMemory() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DIGIT_0,
                 MEMORY_STORE,
@@ -503,7 +514,7 @@ public class CalculatorStatesTest {
                 PLUS,
                 MEMORY_RESTORE,
                 EVALUATE
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("12.071067811865", view.getDisplayText());
@@ -511,7 +522,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspace() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_5,
                 DIGIT_5,
@@ -522,7 +533,7 @@ public class CalculatorStatesTest {
                 BACK_SPACE,
                 BACK_SPACE,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -532,7 +543,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testTooManyBackspace() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_5,
                 DIGIT_5,
@@ -548,7 +559,7 @@ public class CalculatorStatesTest {
                 DIGIT_7,
                 BACK_SPACE,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -558,7 +569,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceWithDottedNumber() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_5,
                 DIGIT_5,
@@ -574,7 +585,7 @@ public class CalculatorStatesTest {
                 DOT,
                 DOT,
                 DIGIT_2
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("55555.2", view.getDisplayText());
@@ -584,13 +595,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testDoubleReverseAfterDot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_6,
                 DOT,
                 REVERSE,
                 REVERSE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("56.", view.getDisplayText());
@@ -600,7 +611,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPositiveOverflow() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_5,
                 DIGIT_5,
@@ -647,7 +658,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1.66666666666667e+16", view.getDisplayText());
@@ -657,7 +668,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNegativeOverflow() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_5,
                 DIGIT_5,
@@ -706,7 +717,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("-1.66666666666667e+16", view.getDisplayText());
@@ -716,7 +727,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPrecision() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DOT,
                 DIGIT_0,
                 DIGIT_0,
@@ -752,7 +763,7 @@ public class CalculatorStatesTest {
                 DIVIDE,
                 DIGIT_2,
                 EVALUATE
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -763,12 +774,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPercentAfterSign() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DIVIDE,
                 PERCENT,
                 PERCENT
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -779,7 +790,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPrecision1() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 SQUARE_ROOT,
                 MINUS,
@@ -796,7 +807,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -806,14 +817,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyNullsAtBeginning() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 DIGIT_0,
                 DIGIT_0,
                 DIGIT_0,
                 DIGIT_0,
                 DIGIT_0
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -823,7 +834,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyNullsAfterSingSelection() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 PLUS,
                 DIGIT_0,
@@ -831,7 +842,7 @@ public class CalculatorStatesTest {
                 DIGIT_0,
                 DIGIT_0,
                 DIGIT_0
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -841,10 +852,10 @@ public class CalculatorStatesTest {
 
     @Test
     public void testReverseNullsAtBeginning() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 REVERSE
-        ));
+        )));
 
 
         assertFalse(view.hasMemoryFlag());
@@ -855,12 +866,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testReverseNullsAfterSingSelection() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 PLUS,
                 DIGIT_0,
                 REVERSE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -870,7 +881,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManySquareRootsMultiplications2() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DIGIT_6,
                 MULTIPLY,
@@ -879,7 +890,7 @@ public class CalculatorStatesTest {
                 SQUARE_ROOT,
                 MULTIPLY,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("262144", view.getDisplayText());
@@ -889,7 +900,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyPercentsMultiplications() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_0,
                 MULTIPLY,
@@ -898,7 +909,7 @@ public class CalculatorStatesTest {
                 PERCENT,
                 MULTIPLY,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("381469726562500", view.getDisplayText());
@@ -908,7 +919,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testMemoryRecovery() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 MEMORY_PLUS,
                 CLEAR,
@@ -916,7 +927,7 @@ public class CalculatorStatesTest {
                 MULTIPLY,
                 MEMORY_RESTORE,
                 PLUS
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("4", view.getDisplayText());
@@ -926,7 +937,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testMinusZero() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 DOT,
                 DIGIT_0,
@@ -939,7 +950,7 @@ public class CalculatorStatesTest {
                 BACK_SPACE,
                 BACK_SPACE,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -949,11 +960,11 @@ public class CalculatorStatesTest {
 
     @Test
     public void testReverseSquareRoot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 SQUARE_ROOT,
                 REVERSE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("-1.4142135623731", view.getDisplayText());
@@ -963,13 +974,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testDoubleInverse() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_7,
                 DIGIT_4,
                 DIGIT_3,
                 INVERSE,
                 INVERSE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("743", view.getDisplayText());
@@ -979,13 +990,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNormalize() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DOT,
                 DIGIT_0,
                 DIGIT_1,
                 DIGIT_0,
                 PLUS
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0.01", view.getDisplayText());
@@ -995,13 +1006,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNormalizeAfterPlus() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DOT,
                 DIGIT_0,
                 DIGIT_1,
                 DIGIT_0,
                 PLUS
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0.01", view.getDisplayText());
@@ -1011,12 +1022,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterDotInLArg1() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 DOT,
                 BACK_SPACE,
                 DIGIT_9
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("9", view.getDisplayText());
@@ -1026,14 +1037,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterDotInRArg1() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 PLUS,
                 DIGIT_0,
                 DOT,
                 BACK_SPACE,
                 DIGIT_9
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("9", view.getDisplayText());
@@ -1044,12 +1055,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterDotInLArg2() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DOT,
                 BACK_SPACE,
                 DIGIT_9
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("19", view.getDisplayText());
@@ -1059,14 +1070,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterDotInRArg2() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 PLUS,
                 DIGIT_1,
                 DOT,
                 BACK_SPACE,
                 DIGIT_9
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("19", view.getDisplayText());
@@ -1076,7 +1087,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testRounding() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DOT,
                 DIGIT_9,
                 DIGIT_9,
@@ -1100,7 +1111,7 @@ public class CalculatorStatesTest {
                 DIGIT_9,
                 DIGIT_9,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1", view.getDisplayText());
@@ -1110,13 +1121,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyEvaluationsAfterDot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DOT,
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("2", view.getDisplayText());
@@ -1126,7 +1137,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testDecrementMaxNormalized() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_9,
                 DIGIT_9,
                 DIGIT_9,
@@ -1163,7 +1174,7 @@ public class CalculatorStatesTest {
                 MINUS,
                 DIGIT_1,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("999999999999998", view.getDisplayText());
@@ -1173,12 +1184,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSquareRootAfterClearAfterError() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 INVERSE,
                 CLEAR,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1188,7 +1199,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testScientificNumberModification() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_9,
                 DIGIT_9,
                 DIGIT_9,
@@ -1213,7 +1224,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("9.99999999999997e+44", view.getDisplayText());
@@ -1223,14 +1234,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testModificationAfterMemorySetInLArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_3,
                 DIGIT_3,
                 DIGIT_3,
                 DIGIT_3,
                 MEMORY_STORE,
                 DIGIT_4
-        ));
+        )));
 
 
         assertTrue(view.hasMemoryFlag());
@@ -1241,7 +1252,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testModificationAfterMemorySetInRArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 MULTIPLY,
                 DIGIT_3,
                 DIGIT_3,
@@ -1249,7 +1260,7 @@ public class CalculatorStatesTest {
                 DIGIT_3,
                 MEMORY_STORE,
                 DIGIT_4
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("4", view.getDisplayText());
@@ -1259,7 +1270,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testTransitionToScientificNotation() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_9,
                 DIGIT_9,
                 DIGIT_9,
@@ -1283,7 +1294,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1.00000000000001e+15", view.getDisplayText());
@@ -1293,11 +1304,11 @@ public class CalculatorStatesTest {
 
     @Test
     public void testReverse() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_9,
                 REVERSE,
                 DIGIT_9
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("-99", view.getDisplayText());
@@ -1307,13 +1318,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterSignSelection() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DIGIT_3,
                 DIGIT_8,
                 DIVIDE,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("238", view.getDisplayText());
@@ -1323,7 +1334,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterEvaluation() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DIGIT_3,
                 DIGIT_8,
@@ -1331,7 +1342,7 @@ public class CalculatorStatesTest {
                 DIGIT_1,
                 EVALUATE,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("238", view.getDisplayText());
@@ -1341,7 +1352,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPrecision2() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DIVIDE,
                 DIGIT_7,
@@ -1354,7 +1365,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1364,7 +1375,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testClearAfterEvaluation() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 PLUS,
                 DIGIT_1,
@@ -1372,7 +1383,7 @@ public class CalculatorStatesTest {
                 CLEAR,
                 DIGIT_0,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1383,13 +1394,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNormalizeInRArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 MINUS,
                 DIGIT_0,
                 DOT,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1399,14 +1410,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testDotInInitialState() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DOT,
                 EVALUATE,
                 DOT,
                 DIGIT_3,
                 DIGIT_3
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0.33", view.getDisplayText());
@@ -1416,14 +1427,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNormalizationAfterMemoryOperations() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DIGIT_5,
                 MEMORY_PLUS,
                 REVERSE,
                 DOT,
                 MEMORY_MINUS
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1433,11 +1444,11 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterSquareRootInLArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 SQUARE_ROOT,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1.4142135623731", view.getDisplayText());
@@ -1447,13 +1458,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterSquareRootInRArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 PLUS,
                 DIGIT_2,
                 SQUARE_ROOT,
                 BACK_SPACE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1.4142135623731", view.getDisplayText());
@@ -1463,13 +1474,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterMemoryRestoreInLArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DIGIT_2,
                 MEMORY_PLUS,
                 MEMORY_RESTORE,
                 BACK_SPACE
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("22", view.getDisplayText());
@@ -1479,14 +1490,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterMemoryRestoreInRArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_2,
                 DIGIT_2,
                 MEMORY_PLUS,
                 MEMORY_RESTORE,
                 BACK_SPACE
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("22", view.getDisplayText());
@@ -1496,13 +1507,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testBackspaceAfterMemoryPlusInRArg() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 PLUS,
                 DIGIT_2,
                 DIGIT_2,
                 MEMORY_PLUS,
                 BACK_SPACE
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("22", view.getDisplayText());
@@ -1512,14 +1523,14 @@ public class CalculatorStatesTest {
 
     @Test
     public void testPlusAfterMemoryPlus() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 MEMORY_PLUS,
                 PLUS,
                 DOT,
                 DIGIT_3,
                 PLUS
-        ));
+        )));
 
         assertTrue(view.hasMemoryFlag());
         assertEquals("5.3", view.getDisplayText());
@@ -1529,7 +1540,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSmallDigitRounding() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_3,
                 MINUS,
                 DOT,
@@ -1539,7 +1550,7 @@ public class CalculatorStatesTest {
                 EVALUATE,
                 EVALUATE,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1549,7 +1560,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testRound() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_1,
                 DIVIDE,
                 DIGIT_3,
@@ -1566,7 +1577,7 @@ public class CalculatorStatesTest {
                 MULTIPLY,
                 DIGIT_2,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("1333333332.6667", view.getDisplayText());
@@ -1576,7 +1587,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testManyEvaluationsAfterDot2() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 MULTIPLY,
                 DIGIT_3,
@@ -1584,7 +1595,7 @@ public class CalculatorStatesTest {
                 DOT,
                 DIGIT_2,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0.6", view.getDisplayText());
@@ -1594,12 +1605,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNegativeZeroSquareRoot() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 DOT,
                 REVERSE,
                 SQUARE_ROOT
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1609,12 +1620,12 @@ public class CalculatorStatesTest {
 
     @Test
     public void testNegativeZeroNormalization() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_0,
                 DOT,
                 REVERSE,
                 MULTIPLY
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("0", view.getDisplayText());
@@ -1624,13 +1635,13 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSquareRoot2() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_5,
                 DIGIT_5,
                 SQUARE_ROOT,
                 MULTIPLY,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("55", view.getDisplayText());
@@ -1639,7 +1650,7 @@ public class CalculatorStatesTest {
 
     @Test
     public void testSquareRoot3() {
-        assertEmpty(stateMachine.run(
+        assertEmpty(stateMachine.run(record(
                 DIGIT_2,
                 DIGIT_2,
                 DIGIT_2,
@@ -1658,7 +1669,7 @@ public class CalculatorStatesTest {
                 SQUARE_ROOT,
                 MULTIPLY,
                 EVALUATE
-        ));
+        )));
 
         assertFalse(view.hasMemoryFlag());
         assertEquals("222222222222555", view.getDisplayText());
@@ -1727,6 +1738,12 @@ public class CalculatorStatesTest {
         }
     }
 
+    private Signal[] record(Signal... signals) {
+        Collections.addAll(this.signals, signals);
+
+        return signals;
+    }
+
     private static <T> void assertEmpty(T[] arr) {
         assertEquals(0, arr.length);
     }
@@ -0,0 +1,64 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.utils.math.BigFraction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 19:40
+ */
+public class ConfinedCalculatorModelTest {
+
+    private CalculatorModel model;
+
+    @Before
+    public void setUp() throws Exception {
+        model = new CalculatorModel(CalculatorModel.ConcurrencyMode.THREAD_CONFINED);
+    }
+
+    @Test
+    public void testSessionIsReused() {
+        CalculatorModel.Session first;
+        try (CalculatorModel.Session session = model.createSession()) {
+            session.setMemory(BigFraction.ONE);
+            first = session;
+        }
+
+        try (CalculatorModel.Session session = model.createSession()) {
+            assertSame(first, session);
+            assertEquals(BigFraction.ONE, session.getMemory());
+        }
+    }
+
+    @Test
+    public void testAccessFromAnotherThreadIsDetected() throws Exception {
+        model.createSession().close();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                model.createSession().close();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        boolean assertionsEnabled = false;
+        assert assertionsEnabled = true;
+
+        if (assertionsEnabled) {
+            assertTrue(error.get() instanceof AssertionError);
+        } else {
+            assertNull(error.get());
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.myzone.calculator;
+
+import com.myzone.utils.concurrent.Dispatcher;
+import com.myzone.utils.concurrent.Mailbox;
+import com.myzone.utils.concurrent.OverflowPolicy;
+import com.myzone.utils.statemachine.State;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 18:05
+ */
+public class DispatcherTest {
+
+    private static final int MAILBOXES_COUNT = 1000;
+    private static final int STIMULI_COUNT = 100;
+
+    private Dispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        dispatcher = new Dispatcher(4, 8);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dispatcher.close();
+    }
+
+    @Test
+    public void testOrderingIsPreservedPerMailbox() throws Exception {
+        CountDownLatch latch = new CountDownLatch(MAILBOXES_COUNT * STIMULI_COUNT);
+
+        List<List<Integer>> received = new ArrayList<>();
+        List<Mailbox<Integer>> mailboxes = new ArrayList<>();
+        for (int i = 0; i < MAILBOXES_COUNT; i++) {
+            List<Integer> log = new ArrayList<>();
+
+            received.add(log);
+            mailboxes.add(dispatcher.register(new RecordingStateFactory(log, latch)));
+        }
+
+        for (int i = 0; i < STIMULI_COUNT; i++) {
+            for (Mailbox<Integer> mailbox : mailboxes) {
+                mailbox.process(i);
+            }
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        for (List<Integer> log : received) {
+            assertEquals(STIMULI_COUNT, log.size());
+
+            for (int i = 0; i < STIMULI_COUNT; i++) {
+                assertEquals(i, (int) log.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testClosedMailboxIgnoresStimuli() throws Exception {
+        List<Integer> log = new ArrayList<>();
+        Mailbox<Integer> mailbox = dispatcher.register(new RecordingStateFactory(log, new CountDownLatch(0)));
+
+        mailbox.close();
+        mailbox.process(1);
+
+        assertTrue(mailbox.isIdle());
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    public void testMailboxOfClosedDispatcherDropsStimuli() throws Exception {
+        List<Integer> log = new ArrayList<>();
+        Mailbox<Integer> mailbox = dispatcher.register(new RecordingStateFactory(log, new CountDownLatch(0)));
+
+        dispatcher.close();
+
+        assertFalse(mailbox.process(1));
+        assertFalse(mailbox.process(2));
+
+        assertTrue(mailbox.isIdle());
+        assertTrue(log.isEmpty());
+        // the second one isn't even offered to closed mailbox
+        assertEquals(0, mailbox.getAcceptedCount());
+        assertEquals(1, mailbox.getDroppedCount());
+    }
+
+    @Test
+    public void testDropPolicy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch processed = new CountDownLatch(3);
+        List<Integer> log = new ArrayList<>();
+        Mailbox<Integer> mailbox = dispatcher.register(new BlockingStateFactory(log, started, released, processed), 2, OverflowPolicy.DROP);
+
+        assertTrue(mailbox.process(0));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertTrue(mailbox.process(1));
+        assertTrue(mailbox.process(2));
+        assertFalse(mailbox.process(3));
+        assertEquals(2, mailbox.getQueueDepth());
+
+        released.countDown();
+
+        assertTrue(processed.await(10, TimeUnit.SECONDS));
+        assertEquals(asList(0, 1, 2), log);
+        assertEquals(3, mailbox.getAcceptedCount());
+        assertEquals(1, mailbox.getDroppedCount());
+        assertEquals(2, mailbox.getMaxQueueDepth());
+    }
+
+    @Test
+    public void testCoalescePolicy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch processed = new CountDownLatch(4);
+        List<Integer> log = new ArrayList<>();
+        Mailbox<Integer> mailbox = dispatcher.register(new BlockingStateFactory(log, started, released, processed), 2, OverflowPolicy.COALESCE);
+
+        assertTrue(mailbox.process(0));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(mailbox.process(i));
+        }
+        assertEquals(3, mailbox.getQueueDepth());
+
+        released.countDown();
+
+        assertTrue(processed.await(10, TimeUnit.SECONDS));
+        assertEquals(asList(0, 1, 2, 5), log);
+        assertEquals(0, mailbox.getDroppedCount());
+        assertEquals(2, mailbox.getCoalescedCount());
+    }
+
+    private static class RecordingStateFactory implements State.Factory<Integer> {
+
+        private final State<Integer> state;
+
+        private RecordingStateFactory(List<Integer> log, CountDownLatch latch) {
+            state = new State<Integer>() {
+                @NotNull
+                @Override
+                public State<Integer> react(@NotNull Integer stimulus) {
+                    log.add(stimulus);
+                    latch.countDown();
+
+                    return this;
+                }
+            };
+        }
+
+        @NotNull
+        @Override
+        public State<Integer> getStartState() {
+            return state;
+        }
+
+        @NotNull
+        @Override
+        public State<Integer> getEndState() {
+            return state;
+        }
+
+    }
+
+    private static class BlockingStateFactory implements State.Factory<Integer> {
+
+        private final State<Integer> state;
+
+        private BlockingStateFactory(List<Integer> log, CountDownLatch started, CountDownLatch released, CountDownLatch processed) {
+            state = new State<Integer>() {
+                @NotNull
+                @Override
+                public State<Integer> react(@NotNull Integer stimulus) {
+                    started.countDown();
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    log.add(stimulus);
+                    processed.countDown();
+
+                    return this;
+                }
+            };
+        }
+
+        @NotNull
+        @Override
+        public State<Integer> getStartState() {
+            return state;
+        }
+
+        @NotNull
+        @Override
+        public State<Integer> getEndState() {
+            return state;
+        }
+
+    }
+
+}
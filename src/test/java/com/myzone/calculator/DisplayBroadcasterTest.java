@@ -0,0 +1,181 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.view.DisplayBroadcaster;
+import com.myzone.calculator.view.DisplaySnapshot;
+import com.myzone.utils.statemachine.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 15:20
+ */
+public class DisplayBroadcasterTest {
+
+    private CalculatorModel model;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        model = new CalculatorModel();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPublishingCostDoesNotDependOnSubscribers() {
+        ManualExecutor fanOutExecutor = new ManualExecutor();
+        ManualExecutor observerExecutor = new ManualExecutor();
+        DisplayBroadcaster broadcaster = new DisplayBroadcaster(model, fanOutExecutor);
+
+        for (int i = 0; i < 1000; i++) {
+            broadcaster.subscribe((snapshot) -> {
+            }, observerExecutor);
+        }
+        observerExecutor.runAll();
+
+        for (int i = 0; i < 1000; i++) {
+            broadcaster.publish(new DisplaySnapshot(String.valueOf(i), false));
+        }
+
+        // no observer has been touched by publisher, all publications are coalesced into single fan-out
+        assertEquals(0, observerExecutor.tasks.size());
+        assertEquals(1, fanOutExecutor.tasks.size());
+
+        fanOutExecutor.runAll();
+        assertEquals(1000, observerExecutor.tasks.size());
+
+        observerExecutor.runAll();
+        assertEquals(0, fanOutExecutor.tasks.size());
+    }
+
+    @Test
+    public void testSlowObserverSkipsIntermediateSnapshots() throws Exception {
+        DisplayBroadcaster broadcaster = new DisplayBroadcaster(model, executor);
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        List<DisplaySnapshot> slowObserved = Collections.synchronizedList(new ArrayList<>());
+        List<DisplaySnapshot> fastObserved = Collections.synchronizedList(new ArrayList<>());
+
+        DisplayBroadcaster.Subscription slow = broadcaster.subscribe((snapshot) -> {
+            slowObserved.add(snapshot);
+
+            blocked.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, executor);
+        DisplayBroadcaster.Subscription fast = broadcaster.subscribe(fastObserved::add, Runnable::run);
+
+        assertTrue(blocked.await(1, TimeUnit.SECONDS));
+
+        DisplaySnapshot last = null;
+        for (int i = 1; i <= 100; i++) {
+            last = new DisplaySnapshot(String.valueOf(i), i % 2 == 0);
+            broadcaster.publish(last);
+        }
+
+        awaitDelivery(fast, last);
+        released.countDown();
+        awaitDelivery(slow, last);
+
+        // initial and the last ones only
+        assertEquals(2, slowObserved.size());
+        assertEquals(DisplaySnapshot.INITIAL, slowObserved.get(0));
+        assertEquals(last, slowObserved.get(1));
+
+        // skipped frames are never reordered
+        for (int i = 1; i < fastObserved.size(); i++) {
+            int previous = Integer.parseInt(fastObserved.get(i - 1).getDisplayText());
+            int current = Integer.parseInt(fastObserved.get(i).getDisplayText());
+
+            assertTrue(previous < current);
+        }
+    }
+
+    @Test
+    public void testObserversMirrorStateMachine() throws Exception {
+        DisplayBroadcaster broadcaster = new DisplayBroadcaster(model, executor);
+        CalculatorStateFactory stateFactory = new CalculatorStateFactory(model, broadcaster);
+
+        List<DisplayBroadcaster.Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            subscriptions.add(broadcaster.subscribe((snapshot) -> {
+            }, executor));
+        }
+
+        State<Signal> state = stateFactory.getStartState();
+        for (Signal signal : new Signal[]{DIGIT_1, DIGIT_2, PLUS, DIGIT_3, MEMORY_STORE, EVALUATE}) {
+            state = state.react(signal);
+        }
+
+        DisplaySnapshot expected = new DisplaySnapshot("15", true);
+        assertEquals(expected, broadcaster.getLatest());
+        for (DisplayBroadcaster.Subscription subscription : subscriptions) {
+            awaitDelivery(subscription, expected);
+        }
+
+        // closed subscription doesn't get anything
+        DisplayBroadcaster.Subscription closed = subscriptions.remove(0);
+        closed.close();
+        assertEquals(199, broadcaster.getSubscriberCount());
+
+        state.react(MEMORY_CLEAR);
+
+        expected = new DisplaySnapshot("15", false);
+        for (DisplayBroadcaster.Subscription subscription : subscriptions) {
+            awaitDelivery(subscription, expected);
+        }
+        assertEquals(new DisplaySnapshot("15", true), closed.getDelivered());
+    }
+
+    private static void awaitDelivery(DisplayBroadcaster.Subscription subscription, DisplaySnapshot snapshot) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!snapshot.equals(subscription.getDelivered())) {
+            assertTrue("Snapshot " + snapshot + " hasn't been delivered", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static class ManualExecutor implements Executor {
+
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+                task.run();
+            }
+        }
+    }
+
+}
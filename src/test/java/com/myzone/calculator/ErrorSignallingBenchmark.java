@@ -0,0 +1,73 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.model.CalculatorModel.Operation;
+import com.myzone.utils.math.BigFraction;
+
+import static com.myzone.utils.math.BigFraction.valueOf;
+
+/**
+ * Compares exception-based and result-based error signalling on error-heavy sequences of operations.
+ * Run it manually, it isn't a part of test suite.
+ *
+ * @author: myzone
+ * @date: 19.10.26 19:10
+ */
+public class ErrorSignallingBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    // every second operation fails either with division by zero or overflow
+    private static final Operation[] OPERATIONS = {Operation.DIVIDE, Operation.ADD, Operation.MULTIPLY, Operation.SUBTRACT};
+    private static final BigFraction[] L_ARGS = {valueOf(7), valueOf(7), BigFraction.TEN.pow(200), valueOf(1, 3)};
+    private static final BigFraction[] R_ARGS = {BigFraction.ZERO, valueOf(2, 5), BigFraction.TEN.pow(200), valueOf(5)};
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 3; round++) {
+            measure("exceptions", WARM_UP_ITERATIONS, ErrorSignallingBenchmark::withExceptions);
+            measure("results", WARM_UP_ITERATIONS, ErrorSignallingBenchmark::withResults);
+        }
+
+        System.out.printf("exceptions: %.1f ns/op%n", measure("exceptions", MEASURED_ITERATIONS, ErrorSignallingBenchmark::withExceptions));
+        System.out.printf("results: %.1f ns/op%n", measure("results", MEASURED_ITERATIONS, ErrorSignallingBenchmark::withResults));
+    }
+
+    private static int withExceptions(int i) {
+        int index = i % OPERATIONS.length;
+
+        try {
+            OPERATIONS[index].evaluate(L_ARGS[index], R_ARGS[index]);
+            return 0;
+        } catch (Exception e) {
+            return 1;
+        }
+    }
+
+    private static int withResults(int i) {
+        int index = i % OPERATIONS.length;
+
+        return OPERATIONS[index].tryEvaluate(L_ARGS[index], R_ARGS[index]) == null ? 1 : 0;
+    }
+
+    private static double measure(String name, int iterations, Step step) {
+        int errors = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            errors += step.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (errors != iterations / 2)
+            throw new IllegalStateException(name + " produced " + errors + " errors instead of " + iterations / 2);
+
+        return (double) elapsed / iterations;
+    }
+
+    private static interface Step {
+
+        int run(int iteration);
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.EvaluationBudget;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.view.CalculatorView;
+import com.myzone.utils.statemachine.TestingEventStateMachine;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.myzone.calculator.model.Signal.*;
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 21:30
+ */
+public class EvaluationBudgetTest {
+
+    private volatile CalculatorModel model;
+    private volatile String displayText;
+
+    private EvaluationBudget budget;
+    private TestingEventStateMachine<Signal> stateMachine;
+
+    @Before
+    public void setUp() throws Exception {
+        budget = new EvaluationBudget(64, 1024, Long.MAX_VALUE);
+        model = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING, budget);
+        displayText = "0";
+
+        CalculatorView view = mock(CalculatorView.class);
+        doAnswer(invocation -> {
+            try (CalculatorModel.Session session = model.createSession()) {
+                displayText = session.getDisplayText();
+            }
+
+            return null;
+        }).when(view).invalidate();
+
+        stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, view));
+    }
+
+    @Test
+    public void testOperandsWithinBudget() {
+        assertEmpty(stateMachine.run(
+                DIGIT_9,
+                DIGIT_9,
+                DIGIT_9,
+                MULTIPLY,
+                EVALUATE
+        ));
+
+        assertEquals("998001", displayText);
+        assertEquals(0, budget.getExhaustions());
+    }
+
+    @Test
+    public void testOperandGrowthIsStopped() {
+        assertEmpty(stateMachine.run(
+                DIGIT_9,
+                DIGIT_9,
+                DIGIT_9,
+                MULTIPLY,
+                EVALUATE,
+                EVALUATE,
+                EVALUATE,
+                EVALUATE,
+                EVALUATE,
+                EVALUATE,
+                EVALUATE
+        ));
+
+        assertEquals("ERR", displayText);
+        assertEquals(1, budget.getOperandBitLengthExhaustions());
+    }
+
+    @Test
+    public void testOperationRespectsBudget() {
+        assertNull(CalculatorModel.Operation.MULTIPLY.tryEvaluate(valueOf(1L << 40), valueOf(1L << 40), budget));
+        assertEquals(valueOf(1L << 40), CalculatorModel.Operation.MULTIPLY.tryEvaluate(valueOf(1L << 20), valueOf(1L << 20), budget));
+    }
+
+    private static <T> void assertEmpty(T[] arr) {
+        assertEquals(0, arr.length);
+    }
+
+}
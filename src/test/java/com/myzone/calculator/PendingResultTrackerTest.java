@@ -0,0 +1,119 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.controller.PendingResultTracker;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.EvaluationBudget;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.view.CalculatorView;
+import com.myzone.utils.math.BigFraction;
+import com.myzone.utils.statemachine.TestingEventStateMachine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.myzone.calculator.model.Signal.*;
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 22:05
+ */
+public class PendingResultTrackerTest {
+
+    @Test
+    public void testPreviewFollowsTypedRArg() {
+        PendingResultTracker tracker = new PendingResultTracker();
+        List<BigFraction> previews = new ArrayList<>();
+        tracker.addPreviewListener(previews::add);
+
+        CalculatorModel model = new CalculatorModel();
+        run(model, tracker, DIGIT_1, DIGIT_2, MULTIPLY, DIGIT_3, DIGIT_4, DOT, DIGIT_5);
+
+        assertArrayEquals(new BigFraction[]{
+                valueOf(36),
+                valueOf(408),
+                valueOf(408),
+                valueOf(414)
+        }, previews.toArray());
+        assertEquals(valueOf(414), tracker.getPreview());
+    }
+
+    @Test
+    public void testDivisionIsNotTracked() {
+        PendingResultTracker tracker = new PendingResultTracker();
+        List<BigFraction> previews = new ArrayList<>();
+        tracker.addPreviewListener(previews::add);
+
+        CalculatorModel model = new CalculatorModel();
+        run(model, tracker, DIGIT_1, DIVIDE, DIGIT_3);
+
+        assertEquals(1, previews.size());
+        assertNull(previews.get(0));
+    }
+
+    @Test
+    public void testTrackedResultIsTheSameAsEvaluated() {
+        Signal[][] scenarios = {
+                {DIGIT_7, PLUS, DIGIT_1, DIGIT_2, EVALUATE},
+                {DIGIT_7, MINUS, DIGIT_1, DOT, DIGIT_2, DIGIT_5, EVALUATE},
+                {DIGIT_7, MULTIPLY, DIGIT_3, BACK_SPACE, DIGIT_4, MULTIPLY, DIGIT_5, DIGIT_6, EVALUATE},
+                {DIGIT_9, MULTIPLY, DIGIT_9, DIGIT_9, DOT, DOT, DIGIT_1, REVERSE, EVALUATE},
+                {DIGIT_2, MULTIPLY, DIGIT_0, DIGIT_3, PLUS, DIGIT_1, EVALUATE, EVALUATE},
+                {DIGIT_5, PLUS, DIGIT_5, DIGIT_5, DIVIDE, DIGIT_2, PLUS, DIGIT_1, DIGIT_1, DOT, DIGIT_5, EVALUATE},
+        };
+
+        for (Signal[] scenario : scenarios) {
+            CalculatorModel expected = new CalculatorModel();
+            CalculatorModel actual = new CalculatorModel();
+
+            run(expected, null, scenario);
+            run(actual, new PendingResultTracker(), scenario);
+
+            try (CalculatorModel.Session expectedSession = expected.createSession();
+                 CalculatorModel.Session actualSession = actual.createSession()) {
+                assertEquals(expectedSession.getDisplayText(), actualSession.getDisplayText());
+                assertEquals(expectedSession.getDisplayData(), actualSession.getDisplayData());
+                assertEquals(expectedSession.getlArg(), actualSession.getlArg());
+            }
+        }
+    }
+
+    @Test
+    public void testPreviewsDoNotConsumeBudget() {
+        EvaluationBudget budget = new EvaluationBudget(32, 1024, Long.MAX_VALUE);
+        CalculatorModel model = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING, budget);
+        PendingResultTracker tracker = new PendingResultTracker();
+        List<BigFraction> previews = new ArrayList<>();
+        tracker.addPreviewListener(previews::add);
+
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, mock(CalculatorView.class), null, tracker));
+
+        // lArg alone exceeds the operand limit, so no product with it fits
+        assertEquals(0, stateMachine.run(DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, DIGIT_9, MULTIPLY).length);
+        assertEquals(0, stateMachine.run(DIGIT_9, DIGIT_9, DIGIT_9).length);
+
+        assertNull(previews.get(previews.size() - 1));
+        assertEquals(0, budget.getExhaustions());
+
+        assertEquals(0, stateMachine.run(EVALUATE).length);
+
+        try (CalculatorModel.Session session = model.createSession()) {
+            assertEquals("ERR", session.getDisplayText());
+        }
+        assertEquals(1, budget.getExhaustions());
+    }
+
+    private static void run(CalculatorModel model, PendingResultTracker tracker, Signal... signals) {
+        CalculatorView view = mock(CalculatorView.class);
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, view, null, tracker));
+
+        assertEquals(0, stateMachine.run(signals).length);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.controller.PrefixSharingReplayer;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.utils.statemachine.State;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 00:30
+ */
+public class PrefixSharingReplayerTest {
+
+    private static final Signal[][] TEMPLATES = {
+            {DIGIT_1, DIGIT_2, MULTIPLY, DIGIT_3, EVALUATE, MEMORY_PLUS},
+            {DIGIT_7, DIVIDE, DIGIT_3, EVALUATE, EVALUATE, REVERSE},
+            {DOT, DIGIT_5, PLUS, DIGIT_2, PERCENT, MINUS}
+    };
+
+    private static final Signal[] SIGNALS = {
+            DIGIT_0, DIGIT_1, DIGIT_4, DIGIT_9, DOT, PLUS, MINUS, MULTIPLY, DIVIDE, EVALUATE,
+            REVERSE, BACK_SPACE, CLEAR_EVALUATION, MEMORY_PLUS, MEMORY_RESTORE, SQUARE_ROOT, INVERSE
+    };
+
+    @Test
+    public void testReplayIsTheSameAsFromScratch() {
+        Random random = new Random(13);
+        PrefixSharingReplayer replayer = new PrefixSharingReplayer(10000, 64);
+
+        for (int i = 0; i < 2000; i++) {
+            Signal[] template = TEMPLATES[random.nextInt(TEMPLATES.length)];
+            Signal[] signals = Arrays.copyOf(template, template.length + random.nextInt(8));
+            for (int j = template.length; j < signals.length; j++) {
+                signals[j] = SIGNALS[random.nextInt(SIGNALS.length)];
+            }
+
+            CalculatorModel.Snapshot actual = replayer.replay(signals);
+            CalculatorModel.Snapshot expected = replayFromScratch(signals);
+
+            String message = Arrays.toString(signals);
+            assertEquals(message, expected.getDisplayText(), actual.getDisplayText());
+            assertEquals(message, expected.getDisplayData(), actual.getDisplayData());
+            assertEquals(message, expected.getlArg(), actual.getlArg());
+            assertEquals(message, expected.getrArg(), actual.getrArg());
+            assertEquals(message, expected.getMemory(), actual.getMemory());
+            assertEquals(message, expected.getOperation(), actual.getOperation());
+        }
+
+        assertEquals(2000, replayer.getReplays());
+        assertTrue(replayer.getHitRate() > 0.9);
+        assertTrue(replayer.getSkippedSignals() > replayer.getReplayedSignals());
+        assertTrue(replayer.getSnapshots() <= 64);
+    }
+
+    @Test
+    public void testNodesAreBounded() {
+        PrefixSharingReplayer replayer = new PrefixSharingReplayer(3, 1);
+
+        replayer.replay(DIGIT_1, PLUS, DIGIT_2, EVALUATE);
+        replayer.replay(DIGIT_1, PLUS, DIGIT_3, EVALUATE);
+
+        assertEquals(3, replayer.getNodes());
+        assertEquals(1, replayer.getSnapshots());
+        assertEquals("4", replayer.replay(DIGIT_1, PLUS, DIGIT_3, EVALUATE).getDisplayText());
+    }
+
+    private static CalculatorModel.Snapshot replayFromScratch(Signal... signals) {
+        CalculatorModel model = new CalculatorModel();
+        State<Signal> state = new CalculatorStateFactory(model, () -> {
+        }).getStartState();
+
+        for (Signal signal : signals) {
+            state = state.react(signal);
+        }
+
+        try (CalculatorModel.Session session = model.createSession()) {
+            return session.snapshot();
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.view.CalculatorView;
+import com.myzone.utils.math.BigFraction;
+import com.myzone.utils.statemachine.TestingEventStateMachine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.myzone.calculator.model.Signal.*;
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 20:15
+ */
+public class ProgressiveDisplayTest {
+
+    private volatile CalculatorModel model;
+    private volatile CalculatorView view;
+    private volatile String displayText;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        model = new CalculatorModel();
+        view = mock(CalculatorView.class);
+        displayText = "0";
+
+        doAnswer(invocation -> {
+            try (CalculatorModel.Session session = model.createSession()) {
+                displayText = session.getDisplayText();
+            }
+
+            return null;
+        }).when(view).invalidate();
+
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testApproximationIsShownBeforeExactResult() {
+        List<Runnable> tasks = new ArrayList<>();
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, view, tasks::add));
+
+        assertEmpty(stateMachine.run(
+                DIGIT_2,
+                MULTIPLY,
+                DIGIT_3,
+                EVALUATE
+        ));
+
+        assertEquals("6", displayText);
+        assertEquals(valueOf(3), displayData());
+
+        tasks.forEach(Runnable::run);
+
+        assertEquals("6", displayText);
+        assertEquals(valueOf(6), displayData());
+    }
+
+    @Test
+    public void testResultIsTheSameAsWithoutProgressiveDisplay() {
+        Signal[] signals = {
+                DIGIT_1,
+                DIVIDE,
+                DIGIT_3,
+                EVALUATE,
+                MULTIPLY,
+                DIGIT_3,
+                EVALUATE,
+                EVALUATE,
+                PLUS,
+                DIGIT_7,
+                EVALUATE,
+                CLEAR_EVALUATION
+        };
+
+        assertEmpty(new TestingEventStateMachine<>(new CalculatorStateFactory(model, view)).run(signals));
+
+        String expectedDisplayText = displayText;
+        BigFraction expectedDisplayData = displayData();
+
+        model = new CalculatorModel();
+        assertEmpty(new TestingEventStateMachine<>(new CalculatorStateFactory(model, view, executor)).run(signals));
+
+        assertEquals(expectedDisplayText, displayText);
+        assertEquals(expectedDisplayData, displayData());
+    }
+
+    @Test
+    public void testClearCancelsPendingEvaluation() {
+        List<Runnable> tasks = new ArrayList<>();
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, view, tasks::add));
+
+        // nothing is executed, so any signal waiting for the result would hang
+        assertEmpty(stateMachine.run(
+                DIGIT_2,
+                MULTIPLY,
+                DIGIT_3,
+                MULTIPLY,
+                CLEAR_EVALUATION,
+                DIGIT_5,
+                PLUS,
+                DIGIT_1,
+                EVALUATE
+        ));
+
+        assertEquals("6", displayText);
+        assertEquals(valueOf(1), displayData());
+
+        assertEmpty(stateMachine.run(CLEAR));
+        tasks.forEach(Runnable::run);
+
+        assertEquals("0", displayText);
+        assertEquals(BigFraction.ZERO, displayData());
+    }
+
+    @Test
+    public void testClearDoesNotCancelAnythingWithoutProgressiveDisplay() {
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, view));
+
+        // chain step is evaluated synchronously before CE is even seen, so CE clears only the entry
+        assertEmpty(stateMachine.run(
+                DIGIT_2,
+                MULTIPLY,
+                DIGIT_3,
+                MULTIPLY,
+                CLEAR_EVALUATION,
+                DIGIT_5,
+                PLUS,
+                DIGIT_1,
+                EVALUATE
+        ));
+
+        assertEquals("31", displayText);
+        assertEquals(valueOf(31), displayData());
+
+        assertEmpty(stateMachine.run(CLEAR));
+
+        assertEquals("0", displayText);
+        assertEquals(BigFraction.ZERO, displayData());
+    }
+
+    @Test
+    public void testZeroDivision() {
+        TestingEventStateMachine<Signal> stateMachine = new TestingEventStateMachine<>(new CalculatorStateFactory(model, view, executor));
+
+        assertEmpty(stateMachine.run(
+                DIGIT_1,
+                DIVIDE,
+                DIGIT_0,
+                EVALUATE,
+                DIGIT_1
+        ));
+
+        assertEquals("ERR", displayText);
+    }
+
+    private BigFraction displayData() {
+        try (CalculatorModel.Session session = model.createSession()) {
+            return session.getDisplayData();
+        }
+    }
+
+    private static <T> void assertEmpty(T[] arr) {
+        assertEquals(0, arr.length);
+    }
+
+}
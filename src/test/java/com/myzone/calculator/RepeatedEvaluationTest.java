@@ -0,0 +1,126 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.controller.SignalReplayer;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.view.CalculatorView;
+import com.myzone.utils.math.BigFraction;
+import com.myzone.utils.statemachine.TestingEventStateMachine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.myzone.calculator.model.Signal.*;
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 22:55
+ */
+public class RepeatedEvaluationTest {
+
+    @Test
+    public void testRepeatedEvaluationIsTheSameAsSequential() {
+        Random random = new Random(42);
+        CalculatorModel.Operation[] operations = CalculatorModel.Operation.values();
+        BigFraction[] values = {
+                BigFraction.ZERO,
+                BigFraction.ONE,
+                valueOf(-1),
+                valueOf(2),
+                valueOf(-3, 7),
+                valueOf(10, 3),
+                valueOf(1, 1000),
+                BigFraction.TEN.pow(249),
+                BigFraction.TEN.pow(-200),
+                valueOf(3).pow(-520)
+        };
+
+        for (int i = 0; i < 2000; i++) {
+            CalculatorModel.Operation operation = operations[random.nextInt(operations.length)];
+            BigFraction lArg = values[random.nextInt(values.length)];
+            BigFraction rArg = values[random.nextInt(values.length)];
+            int count = random.nextInt(1200);
+
+            BigFraction expected = lArg;
+            int expectedEvaluations = 0;
+            while (expectedEvaluations < count) {
+                BigFraction next = operation.tryEvaluate(expected, rArg);
+                if (next == null)
+                    break;
+
+                expected = next;
+                expectedEvaluations++;
+            }
+
+            CalculatorModel.RepeatedEvaluation actual = operation.tryEvaluateRepeatedly(lArg, rArg, count);
+            String message = operation + " " + lArg + " " + rArg + " " + count;
+            assertEquals(message, expectedEvaluations, actual.getEvaluations());
+            assertEquals(message, expected, actual.getResult());
+        }
+    }
+
+    @Test(timeout = 1000)
+    public void testTrivialFactorsAreRepeatedWithoutPowers() {
+        int count = 1_000_000;
+
+        CalculatorModel.RepeatedEvaluation evaluation = CalculatorModel.Operation.MULTIPLY.tryEvaluateRepeatedly(BigFraction.ZERO, valueOf(7), count);
+        assertEquals(count, evaluation.getEvaluations());
+        assertEquals(BigFraction.ZERO, evaluation.getResult());
+
+        evaluation = CalculatorModel.Operation.DIVIDE.tryEvaluateRepeatedly(BigFraction.ZERO, valueOf(7, 3), count);
+        assertEquals(count, evaluation.getEvaluations());
+        assertEquals(BigFraction.ZERO, evaluation.getResult());
+
+        evaluation = CalculatorModel.Operation.MULTIPLY.tryEvaluateRepeatedly(valueOf(5, 3), valueOf(-1), count + 1);
+        assertEquals(count + 1, evaluation.getEvaluations());
+        assertEquals(valueOf(-5, 3), evaluation.getResult());
+
+        evaluation = CalculatorModel.Operation.DIVIDE.tryEvaluateRepeatedly(valueOf(5, 3), valueOf(-1), count);
+        assertEquals(count, evaluation.getEvaluations());
+        assertEquals(valueOf(5, 3), evaluation.getResult());
+    }
+
+    @Test
+    public void testReplayIsTheSameAsStepByStep() {
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_2, MULTIPLY, DIGIT_2), 20));
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_9, DIGIT_9, MULTIPLY, DIGIT_9, DIGIT_9), 200));
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_1, DIVIDE, DIGIT_7), 400));
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_1, DIVIDE, DIGIT_0), 5));
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_1, MINUS, DOT, DIGIT_3), 1000));
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_5, PLUS, DIGIT_1, EVALUATE, EVALUATE, MULTIPLY, DIGIT_3), 700, DIGIT_4, PLUS, DIGIT_4));
+        assertSameAsStepByStep(signals(Arrays.asList(DIGIT_2, MULTIPLY, DIGIT_3), 600, CLEAR, DIGIT_1, PLUS, DIGIT_1, EVALUATE, EVALUATE));
+    }
+
+    private static Signal[] signals(List<Signal> prefix, int evaluations, Signal... suffix) {
+        List<Signal> signals = new ArrayList<>(prefix);
+        signals.addAll(Collections.nCopies(evaluations, EVALUATE));
+        signals.addAll(Arrays.asList(suffix));
+
+        return signals.toArray(new Signal[signals.size()]);
+    }
+
+    private static void assertSameAsStepByStep(Signal... signals) {
+        CalculatorModel expected = new CalculatorModel();
+        CalculatorModel actual = new CalculatorModel();
+
+        assertEquals(0, new TestingEventStateMachine<>(new CalculatorStateFactory(expected, mock(CalculatorView.class))).run(signals).length);
+        new SignalReplayer(new CalculatorStateFactory(actual, mock(CalculatorView.class))).replay(signals);
+
+        try (CalculatorModel.Session expectedSession = expected.createSession();
+             CalculatorModel.Session actualSession = actual.createSession()) {
+            assertEquals(expectedSession.getDisplayText(), actualSession.getDisplayText());
+            assertEquals(expectedSession.getDisplayData(), actualSession.getDisplayData());
+            assertEquals(expectedSession.getlArg(), actualSession.getlArg());
+            assertEquals(expectedSession.getrArg(), actualSession.getrArg());
+        }
+    }
+
+}
@@ -0,0 +1,382 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.replication.ReplicationPrimary;
+import com.myzone.calculator.replication.StandbyServer;
+import com.myzone.calculator.server.CalculatorClient;
+import com.myzone.calculator.server.CalculatorServer;
+import com.myzone.calculator.store.StoredSession;
+import com.myzone.utils.statemachine.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 14:50
+ */
+public class ReplicationTest {
+
+    private static final Signal[] FREQUENT_SIGNALS = {
+            DIGIT_0, DIGIT_1, DIGIT_2, DIGIT_3, DIGIT_7, DIGIT_9, DOT,
+            PLUS, MINUS, MULTIPLY, DIVIDE, EVALUATE, EVALUATE,
+            REVERSE, BACK_SPACE, CLEAR_EVALUATION, MEMORY_PLUS, MEMORY_RESTORE, PERCENT
+    };
+    private static final int SESSIONS = 20;
+
+    private final Random random = new Random(49);
+
+    private StandbyServer standby;
+    private Thread standbyThread;
+
+    @Before
+    public void setUp() throws IOException {
+        standby = new StandbyServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        standbyThread = new Thread(standby, "standby");
+        standbyThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        standby.close();
+        standbyThread.join(1000);
+    }
+
+    @Test
+    public void testAsynchronousReplication() throws Exception {
+        ReplicationPrimary replication = new ReplicationPrimary(standby.getLocalAddress(), ReplicationPrimary.Mode.ASYNCHRONOUS, 1, TimeUnit.SECONDS);
+        CalculatorServer server = new CalculatorServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024, replication);
+        Thread serverThread = new Thread(server, "primary");
+        serverThread.start();
+
+        try (CalculatorClient client = new CalculatorClient(server.getLocalAddress())) {
+            Reference[] references = openSessions(client);
+            for (int i = 0; i < 50; i++) {
+                processBatches(client, references);
+            }
+            client.close(0);
+            client.exportSession(1);
+            client.importSession(100, client.exportSession(2));
+
+            // the last record is the import
+            long appended = replication.getAppendedSequence();
+            while (standby.getAppliedSequence() < appended || replication.getAcknowledgedSequence() < appended) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(0, replication.getLag());
+            assertEquals(0, replication.getLagNanos());
+            assertEquals(SESSIONS - 2, standby.getSessionCount());
+            assertNull(standby.getSession(0, 0));
+            assertNull(standby.getSession(0, 1));
+            assertNull(standby.getSession(0, 2));
+            assertReplicated(references[2], standby.getSession(0, 100));
+            for (int sessionId = 3; sessionId < SESSIONS; sessionId++) {
+                assertReplicated(references[sessionId], standby.getSession(0, sessionId));
+            }
+        } finally {
+            server.close();
+            serverThread.join(1000);
+            replication.close();
+        }
+    }
+
+    @Test
+    public void testSemiSynchronousReplicationFromAnotherProcess() throws Exception {
+        Process primary = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                ServerApplication.class.getName(),
+                "0", "1024",
+                "localhost:" + standby.getLocalAddress().getPort(),
+                ReplicationPrimary.Mode.SEMI_SYNCHRONOUS.name()
+        ).redirectErrorStream(true).start();
+
+        try (CalculatorClient client = new CalculatorClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), readPort(primary)))) {
+            Reference[] references = openSessions(client);
+
+            for (int i = 0; i < 20; i++) {
+                processBatches(client, references);
+
+                // answers are sent only after the standby has applied everything they depend on
+                for (int sessionId = 0; sessionId < SESSIONS; sessionId++) {
+                    assertReplicated(references[sessionId], standby.getSession(0, sessionId));
+                }
+            }
+        } finally {
+            primary.destroy();
+            primary.waitFor();
+        }
+    }
+
+    @Test
+    public void testStandbyFailure() throws Exception {
+        ReplicationPrimary replication = new ReplicationPrimary(standby.getLocalAddress(), ReplicationPrimary.Mode.SEMI_SYNCHRONOUS, 1, TimeUnit.SECONDS);
+        CalculatorServer server = new CalculatorServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024, replication);
+        Thread serverThread = new Thread(server, "primary");
+        serverThread.start();
+
+        try (CalculatorClient client = new CalculatorClient(server.getLocalAddress())) {
+            Reference[] references = openSessions(client);
+            processBatches(client, references);
+
+            standby.close();
+            while (!replication.isFailed()) {
+                processBatches(client, references);
+            }
+
+            // primary goes on alone
+            processBatches(client, references);
+        } finally {
+            server.close();
+            serverThread.join(1000);
+            replication.close();
+        }
+    }
+
+    @Test
+    public void testRecoveryFromDegradationUnderTraffic() throws Exception {
+        try (AcknowledgementValve valve = new AcknowledgementValve(standby.getLocalAddress())) {
+            ReplicationPrimary replication = new ReplicationPrimary(valve.getLocalAddress(), ReplicationPrimary.Mode.SEMI_SYNCHRONOUS, 100, TimeUnit.MILLISECONDS);
+            CalculatorServer server = new CalculatorServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024, replication);
+            Thread serverThread = new Thread(server, "primary");
+            serverThread.start();
+
+            AtomicBoolean stopped = new AtomicBoolean(false);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            List<Thread> trafficThreads = new ArrayList<>();
+
+            try (CalculatorClient client = new CalculatorClient(server.getLocalAddress())) {
+                Reference[] references = openSessions(client);
+
+                for (int i = 0; i < 2; i++) {
+                    Thread trafficThread = new Thread(() -> {
+                        Random random = new Random();
+                        try (CalculatorClient trafficClient = new CalculatorClient(server.getLocalAddress())) {
+                            trafficClient.open(0);
+                            while (!stopped.get()) {
+                                trafficClient.process(0, FREQUENT_SIGNALS[random.nextInt(FREQUENT_SIGNALS.length)]);
+                            }
+                        } catch (Throwable e) {
+                            failure.set(e);
+                        }
+                    }, "traffic-" + i);
+                    trafficThread.start();
+                    trafficThreads.add(trafficThread);
+                }
+
+                processBatches(client, references);
+                assertFalse(replication.isDegraded());
+
+                // standby stalls past the timeout
+                valve.setClosed(true);
+                processBatches(client, references);
+                assertTrue(replication.isDegraded());
+                assertFalse(replication.isFailed());
+
+                // and catches up while clients keep sending, so acknowledgements always trail appended records
+                valve.setDelayMillis(20);
+                valve.setClosed(false);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (replication.isDegraded()) {
+                    assertTrue("Replication hasn't recovered", System.nanoTime() < deadline);
+                    processBatches(client, references);
+                }
+
+                stopped.set(true);
+                for (Thread trafficThread : trafficThreads) {
+                    trafficThread.join(1000);
+                }
+                assertNull(failure.get());
+
+                processBatches(client, references);
+                for (int sessionId = 0; sessionId < SESSIONS; sessionId++) {
+                    assertReplicated(references[sessionId], standby.getSession(0, sessionId));
+                }
+            } finally {
+                stopped.set(true);
+                server.close();
+                serverThread.join(1000);
+                replication.close();
+            }
+        }
+    }
+
+    private Reference[] openSessions(CalculatorClient client) throws IOException {
+        Reference[] references = new Reference[SESSIONS];
+        for (int sessionId = 0; sessionId < SESSIONS; sessionId++) {
+            client.open(sessionId);
+            references[sessionId] = new Reference();
+        }
+
+        return references;
+    }
+
+    private void processBatches(CalculatorClient client, Reference[] references) throws IOException {
+        for (int sessionId = 0; sessionId < SESSIONS; sessionId++) {
+            Signal[] batch = new Signal[1 + random.nextInt(20)];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = FREQUENT_SIGNALS[random.nextInt(FREQUENT_SIGNALS.length)];
+            }
+
+            CalculatorClient.Update update = client.process(sessionId, batch);
+            references[sessionId].react(batch);
+
+            try (CalculatorModel.Session session = references[sessionId].model.createSession()) {
+                assertEquals(session.getDisplayText(), update.getDisplayText());
+            }
+        }
+    }
+
+    private static void assertReplicated(Reference reference, StoredSession replica) {
+        assertNotNull(replica);
+        assertEquals(reference.stateFactory.getStateId(reference.state), replica.getStateId());
+
+        try (CalculatorModel.Session session = reference.model.createSession()) {
+            assertEquals(session.getDisplayText(), replica.getSnapshot().getDisplayText());
+            assertEquals(session.getlArg(), replica.getSnapshot().getlArg());
+            assertEquals(session.getrArg(), replica.getSnapshot().getrArg());
+            assertEquals(session.getMemory(), replica.getSnapshot().getMemory());
+            assertEquals(session.getOperation(), replica.getSnapshot().getOperation());
+        }
+    }
+
+    private static int readPort(Process process) throws IOException {
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        for (String line = output.readLine(); line != null; line = output.readLine()) {
+            if (line.startsWith("Listening on ")) {
+                Thread drainer = new Thread(() -> {
+                    try {
+                        while (output.readLine() != null) {
+                            // ignored
+                        }
+                    } catch (IOException e) {
+                        // process has exited
+                    }
+                }, "primary-output");
+                drainer.setDaemon(true);
+                drainer.start();
+
+                return Integer.parseInt(line.substring(line.lastIndexOf(':') + 1));
+            }
+        }
+
+        throw new IOException("Process has exited");
+    }
+
+    /**
+     * Forwards replication stream to the standby, holds its acknowledgements back while closed and delays them
+     * otherwise.
+     */
+    private static class AcknowledgementValve implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final InetSocketAddress standbyAddress;
+        private final List<Socket> sockets = new ArrayList<>();
+        private volatile boolean closed;
+        private volatile long delayMillis;
+
+        AcknowledgementValve(InetSocketAddress standbyAddress) throws IOException {
+            this.standbyAddress = standbyAddress;
+
+            serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "valve");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        InetSocketAddress getLocalAddress() {
+            return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+        }
+
+        void setClosed(boolean closed) {
+            this.closed = closed;
+        }
+
+        void setDelayMillis(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        private void accept() {
+            try {
+                Socket primary = serverSocket.accept();
+                Socket standby = new Socket(standbyAddress.getAddress(), standbyAddress.getPort());
+                sockets.add(primary);
+                sockets.add(standby);
+
+                pump(primary.getInputStream(), standby.getOutputStream(), false);
+                pump(standby.getInputStream(), primary.getOutputStream(), true);
+            } catch (IOException e) {
+                // closed
+            }
+        }
+
+        private void pump(InputStream input, OutputStream output, boolean valved) {
+            Thread pump = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                        while (valved && closed) {
+                            Thread.sleep(1);
+                        }
+                        if (valved && delayMillis > 0) {
+                            Thread.sleep(delayMillis);
+                        }
+
+                        output.write(buffer, 0, read);
+                        output.flush();
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // closed
+                }
+            }, "valve-pump");
+            pump.setDaemon(true);
+            pump.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    private static class Reference {
+
+        final CalculatorModel model = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING);
+        final CalculatorStateFactory stateFactory = new CalculatorStateFactory(model, () -> {
+        });
+        State<Signal> state = stateFactory.getStartState();
+
+        void react(Signal... signals) {
+            for (Signal signal : signals) {
+                state = state.react(signal);
+            }
+        }
+    }
+
+}
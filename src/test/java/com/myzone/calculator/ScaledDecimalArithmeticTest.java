@@ -0,0 +1,68 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.model.CalculatorModel.Operation;
+import com.myzone.calculator.model.FractionArithmetic;
+import com.myzone.calculator.model.ScaledDecimal;
+import com.myzone.calculator.model.ScaledDecimalArithmetic;
+import com.myzone.utils.math.BigFraction;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static com.myzone.utils.math.BigFraction.valueOf;
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 03:50
+ */
+public class ScaledDecimalArithmeticTest {
+
+    private final ScaledDecimalArithmetic arithmetic = ScaledDecimalArithmetic.INSTANCE;
+
+    @Test
+    public void testTheSameAsFractions() {
+        Random random = new Random(23);
+        Operation[] operations = Operation.values();
+        BigFraction[] specials = {BigFraction.ZERO, BigFraction.TEN.pow(249), BigFraction.TEN.pow(-249), valueOf(1, 3), valueOf(-7, 8)};
+
+        for (int i = 0; i < 5000; i++) {
+            BigFraction lArg = random.nextInt(5) == 0 ? specials[random.nextInt(specials.length)] : valueOf(String.valueOf((random.nextInt(20_000) - 10_000) / 100D));
+            BigFraction rArg = random.nextInt(5) == 0 ? specials[random.nextInt(specials.length)] : valueOf(String.valueOf((random.nextInt(20_000) - 10_000) / 1000D));
+            Operation operation = operations[random.nextInt(operations.length)];
+
+            BigFraction expected = operation.tryEvaluate(lArg, rArg, FractionArithmetic.INSTANCE);
+            ScaledDecimal actual = operation.tryEvaluate(arithmetic.valueOf(lArg), arithmetic.valueOf(rArg), arithmetic);
+
+            String message = lArg + " " + operation + " " + rArg;
+            if (expected == null) {
+                assertNull(message, actual);
+            } else {
+                assertNotNull(message, actual);
+                assertEquals(message, expected, arithmetic.toBigFraction(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testDecimalFormIsKeptUntilNonDecimalQuotient() {
+        ScaledDecimal value = arithmetic.valueOf(valueOf("12.5"));
+        assertTrue(value.isDecimal());
+
+        value = arithmetic.multiply(value, arithmetic.valueOf(valueOf("0.04")));
+        assertEquals(new BigDecimal("0.500"), value.getDecimal());
+
+        value = arithmetic.divide(value, arithmetic.valueOf(valueOf(8)));
+        assertTrue(value.isDecimal());
+        assertEquals(valueOf(1, 16), value.toBigFraction());
+
+        value = arithmetic.divide(value, arithmetic.valueOf(valueOf(3)));
+        assertFalse(value.isDecimal());
+        assertEquals(valueOf(1, 48), value.toBigFraction());
+
+        value = arithmetic.multiply(value, arithmetic.valueOf(valueOf(3)));
+        assertTrue(value.isDecimal());
+    }
+
+}
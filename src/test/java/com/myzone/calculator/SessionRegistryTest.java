@@ -0,0 +1,186 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.cluster.SessionRegistry;
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.server.CalculatorClient;
+import com.myzone.utils.math.BigFraction;
+import com.myzone.utils.statemachine.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every worker in its own JVM.
+ *
+ * @author: myzone
+ * @date: 20.10.26 12:50
+ */
+public class SessionRegistryTest {
+
+    private static final Signal[] FREQUENT_SIGNALS = {
+            DIGIT_0, DIGIT_1, DIGIT_2, DIGIT_3, DIGIT_7, DIGIT_9, DOT,
+            PLUS, MINUS, MULTIPLY, DIVIDE, EVALUATE, EVALUATE,
+            REVERSE, BACK_SPACE, CLEAR_EVALUATION, MEMORY_PLUS, MEMORY_RESTORE, PERCENT
+    };
+
+    private final List<Process> workerProcesses = new ArrayList<>();
+    private final List<InetSocketAddress> workers = new ArrayList<>();
+    private final Random random = new Random(48);
+
+    private SessionRegistry registry;
+
+    @Before
+    public void setUp() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            startWorker();
+        }
+
+        registry = new SessionRegistry();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        registry.close();
+
+        for (Process process : workerProcesses) {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test
+    public void testRebalancing() throws IOException {
+        registry.join(workers.get(0));
+        registry.join(workers.get(1));
+
+        Map<Integer, Reference> references = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            references.put(registry.openSession(), new Reference());
+        }
+        processBatches(references);
+
+        Map<Integer, InetSocketAddress> ownersBeforeJoin = owners(references);
+        registry.join(workers.get(2));
+
+        int migrated = 0;
+        for (Map.Entry<Integer, InetSocketAddress> owner : owners(references).entrySet()) {
+            if (!owner.getValue().equals(ownersBeforeJoin.get(owner.getKey()))) {
+                // sessions move only to the new worker
+                assertEquals(workers.get(2), owner.getValue());
+                migrated++;
+            }
+        }
+        assertTrue("migrated " + migrated, migrated > 10 && migrated < 60);
+        processBatches(references);
+
+        registry.leave(workers.get(0));
+        assertFalse(owners(references).containsValue(workers.get(0)));
+        processBatches(references);
+
+        for (int sessionId : references.keySet()) {
+            registry.closeSession(sessionId);
+        }
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLastWorkerLeaving() throws IOException {
+        registry.join(workers.get(0));
+        registry.openSession();
+
+        registry.leave(workers.get(0));
+    }
+
+    private void processBatches(Map<Integer, Reference> references) throws IOException {
+        for (Map.Entry<Integer, Reference> entry : references.entrySet()) {
+            Signal[] batch = new Signal[1 + random.nextInt(30)];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = FREQUENT_SIGNALS[random.nextInt(FREQUENT_SIGNALS.length)];
+            }
+
+            CalculatorClient.Update update = registry.process(entry.getKey(), batch);
+            Reference reference = entry.getValue();
+            reference.react(batch);
+
+            try (CalculatorModel.Session session = reference.model.createSession()) {
+                assertEquals(session.getDisplayText(), update.getDisplayText());
+                assertEquals(!session.getMemory().equals(BigFraction.ZERO), update.isMemoryFlag());
+            }
+        }
+    }
+
+    private Map<Integer, InetSocketAddress> owners(Map<Integer, Reference> references) {
+        Map<Integer, InetSocketAddress> owners = new HashMap<>();
+        for (int sessionId : references.keySet()) {
+            owners.put(sessionId, registry.getOwner(sessionId));
+        }
+
+        return owners;
+    }
+
+    private void startWorker() throws IOException {
+        Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                ServerApplication.class.getName(),
+                "0"
+        ).redirectErrorStream(true).start();
+        workerProcesses.add(process);
+
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        for (String line = output.readLine(); ; line = output.readLine()) {
+            if (line == null)
+                throw new IOException("Worker has exited");
+
+            if (line.startsWith("Listening on ")) {
+                int port = Integer.parseInt(line.substring(line.lastIndexOf(':') + 1));
+                workers.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+                break;
+            }
+        }
+
+        // worker must never block on its output
+        Thread drainer = new Thread(() -> {
+            try {
+                while (output.readLine() != null) {
+                    // ignored
+                }
+            } catch (IOException e) {
+                // worker has exited
+            }
+        }, "worker-output");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private static class Reference {
+
+        final CalculatorModel model = new CalculatorModel(CalculatorModel.ConcurrencyMode.BLOCKING);
+        State<Signal> state = new CalculatorStateFactory(model, () -> {
+        }).getStartState();
+
+        void react(Signal... signals) {
+            for (Signal signal : signals) {
+                state = state.react(signal);
+            }
+        }
+    }
+
+}
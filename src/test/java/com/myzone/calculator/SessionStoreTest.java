@@ -0,0 +1,152 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.store.SessionStore;
+import com.myzone.calculator.store.StoredSession;
+import com.myzone.utils.math.BigFraction;
+import com.myzone.utils.statemachine.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 10:20
+ */
+public class SessionStoreTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("sessions", ".store");
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(Paths.get(path + ".overflow"));
+    }
+
+    @Test
+    public void testRestart() throws IOException {
+        CalculatorModel model = new CalculatorModel(CalculatorModel.ConcurrencyMode.THREAD_CONFINED);
+        CalculatorStateFactory stateFactory = new CalculatorStateFactory(model, () -> {
+        });
+
+        State<Signal> state = react(stateFactory.getStartState(), DIGIT_1, DIGIT_2, MEMORY_STORE, PLUS, DIGIT_3, DOT);
+
+        try (SessionStore store = new SessionStore(path, 1000)) {
+            assertNull(store.load(999));
+
+            try (CalculatorModel.Session session = model.createSession()) {
+                store.store(999, stateFactory.getStateId(state), session.snapshot());
+            }
+        }
+
+        CalculatorModel restoredModel = new CalculatorModel(CalculatorModel.ConcurrencyMode.THREAD_CONFINED);
+        CalculatorStateFactory restoredStateFactory = new CalculatorStateFactory(restoredModel, () -> {
+        });
+
+        State<Signal> restoredState;
+        try (SessionStore store = new SessionStore(path, 1000)) {
+            StoredSession storedSession = store.load(999);
+            assertNotNull(storedSession);
+
+            restoredState = restoredStateFactory.getState(storedSession.getStateId());
+            try (CalculatorModel.Session session = restoredModel.createSession()) {
+                assertEquals("3.", storedSession.getSnapshot().getDisplayText());
+                session.restore(storedSession.getSnapshot());
+            }
+        }
+
+        react(state, DIGIT_5, EVALUATE, MEMORY_PLUS);
+        react(restoredState, DIGIT_5, EVALUATE, MEMORY_PLUS);
+        try (CalculatorModel.Session session = model.createSession();
+             CalculatorModel.Session restoredSession = restoredModel.createSession()) {
+            assertEquals("15.5", restoredSession.getDisplayText());
+            assertEquals(session.getDisplayText(), restoredSession.getDisplayText());
+            assertEquals(session.getMemory(), restoredSession.getMemory());
+        }
+    }
+
+    @Test
+    public void testUpdatesAndOverflow() throws IOException {
+        BigFraction small = BigFraction.valueOf(1, 3);
+        BigFraction big = BigFraction.valueOf("123456789012345678901234567890").pow(5).divide(7);
+
+        try (SessionStore store = new SessionStore(path, 10)) {
+            for (int i = 0; i < 10; i++) {
+                BigFraction value = i % 3 == 0 ? big.add(BigFraction.valueOf(i)) : small.add(BigFraction.valueOf(i));
+                store.store(3, i % 9, snapshot(value));
+
+                StoredSession storedSession = store.load(3);
+                assertEquals(i % 9, storedSession.getStateId());
+                assertEquals(value, storedSession.getSnapshot().getlArg());
+                assertEquals(value, storedSession.getSnapshot().getMemory());
+                assertEquals(CalculatorModel.Operation.DIVIDE, storedSession.getSnapshot().getOperation());
+            }
+
+            store.remove(3);
+            assertNull(store.load(3));
+        }
+
+        // extents are reused by copies while payload fits
+        assertTrue(Files.size(Paths.get(path + ".overflow")) <= 2 * 1024);
+    }
+
+    @Test
+    public void testTornWrite() throws IOException {
+        try (SessionStore store = new SessionStore(path, 4)) {
+            store.store(1, 2, snapshot(BigFraction.valueOf(1)));
+            store.store(1, 3, snapshot(BigFraction.valueOf(2)));
+        }
+
+        // corrupts payload of the second copy of slot 1
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(16 + SessionStore.SLOT_SIZE + SessionStore.SLOT_SIZE / 2 + 30);
+            file.write(0x55);
+        }
+
+        try (SessionStore store = new SessionStore(path, 4)) {
+            StoredSession storedSession = store.load(1);
+            assertEquals(2, storedSession.getStateId());
+            assertEquals(BigFraction.valueOf(1), storedSession.getSnapshot().getlArg());
+
+            // the intact copy survives the next write
+            store.store(1, 4, snapshot(BigFraction.valueOf(3)));
+            assertEquals(4, store.load(1).getStateId());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testSlotCountMismatch() throws IOException {
+        new SessionStore(path, 4).close();
+        new SessionStore(path, 5).close();
+    }
+
+    private static CalculatorModel.Snapshot snapshot(BigFraction value) {
+        return CalculatorModel.Snapshot.of(value, BigFraction.TEN, value, "1", BigFraction.ONE, CalculatorModel.Operation.DIVIDE);
+    }
+
+    private static State<Signal> react(State<Signal> state, Signal... signals) {
+        for (Signal signal : signals) {
+            state = state.react(signal);
+        }
+
+        return state;
+    }
+
+}
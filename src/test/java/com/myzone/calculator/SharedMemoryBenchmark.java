@@ -0,0 +1,70 @@
+package com.myzone.calculator;
+
+import com.myzone.utils.concurrent.BigFractionAdder;
+import com.myzone.utils.math.BigFraction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.myzone.utils.math.BigFraction.valueOf;
+
+/**
+ * Compares throughput of M+ on shared memory register updated by CAS on a single reference and by
+ * {@link BigFractionAdder} for growing number of writers. Run it manually, it isn't a part of test suite.
+ *
+ * @author: myzone
+ * @date: 20.10.26 01:25
+ */
+public class SharedMemoryBenchmark {
+
+    private static final int ITERATIONS = 2_000_000;
+    private static final BigFraction VALUE = valueOf(3);
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int round = 0; round < 2; round++) {
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                AtomicReference<BigFraction> single = new AtomicReference<>(BigFraction.ZERO);
+                BigFractionAdder striped = new BigFractionAdder();
+
+                double singleRate = measure(threads, () -> single.accumulateAndGet(VALUE, BigFraction::add));
+                double stripedRate = measure(threads, () -> striped.add(VALUE));
+
+                System.out.printf("%d threads: single %.1f Mops/s, striped %.1f Mops/s%n", threads, singleRate, stripedRate);
+            }
+        }
+    }
+
+    private static double measure(int threads, Runnable update) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                for (int i = 0; i < ITERATIONS / threads; i++) {
+                    update.run();
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        return ITERATIONS / ((System.nanoTime() - startTime) / 1000D);
+    }
+
+}
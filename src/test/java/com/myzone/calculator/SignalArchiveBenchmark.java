@@ -0,0 +1,58 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.archive.SignalArchiveReader;
+import com.myzone.calculator.archive.SignalArchiveWriter;
+import com.myzone.calculator.model.Signal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares archive size with gzip and measures sequential and parallel decoding throughput. Run it manually, it
+ * isn't a part of test suite.
+ *
+ * @author: myzone
+ * @date: 20.10.26 08:50
+ */
+public class SignalArchiveBenchmark {
+
+    private static final int SIGNALS = 20_000_000;
+    private static final int ITERATIONS = 10;
+
+    public static void main(String[] args) throws IOException {
+        Signal[] signals = SignalArchiveTest.typicalSignals(SIGNALS, 1);
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            for (Signal signal : signals) {
+                gzip.write(signal.ordinal());
+            }
+        }
+
+        byte[] archive = SignalArchiveTest.archive(signals, SignalArchiveWriter.DEFAULT_BLOCK_SIZE);
+        System.out.printf("gzip: %.3f bits/signal, archive: %.3f bits/signal%n",
+                gzipped.size() * 8D / SIGNALS,
+                archive.length * 8D / SIGNALS
+        );
+
+        SignalArchiveReader reader = new SignalArchiveReader(ByteBuffer.wrap(archive));
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            reader.decodeAll();
+            long sequential = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            reader.decodeAll(ForkJoinPool.commonPool());
+            long parallel = System.nanoTime() - start;
+
+            System.out.printf("sequential: %d M signals/s, parallel: %d M signals/s%n",
+                    SIGNALS * 1000L / sequential,
+                    SIGNALS * 1000L / parallel
+            );
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.archive.SignalArchiveReader;
+import com.myzone.calculator.archive.SignalArchiveWriter;
+import com.myzone.calculator.model.Signal;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 08:30
+ */
+public class SignalArchiveTest {
+
+    private static final Signal[] OPERATORS = {PLUS, PLUS, MINUS, MULTIPLY, MULTIPLY, DIVIDE, EVALUATE, EVALUATE, EVALUATE};
+    private static final Signal[] RARE_SIGNALS = {
+            DOT, PERCENT, SQUARE_ROOT, REVERSE, INVERSE, MEMORY_CLEAR, MEMORY_RESTORE, MEMORY_STORE, MEMORY_PLUS,
+            MEMORY_MINUS, BACK_SPACE, CLEAR, CLEAR_EVALUATION
+    };
+
+    /**
+     * @return keystrokes resembling real sessions: runs of digits between operators, everything else is rare
+     */
+    public static Signal[] typicalSignals(int count, long seed) {
+        Random random = new Random(seed);
+        Signal[] signals = new Signal[count];
+
+        for (int i = 0; i < count; ) {
+            for (int digits = 1 + random.nextInt(6); digits > 0 && i < count; digits--) {
+                signals[i++] = Signal.values()[DIGIT_0.ordinal() + (int) Math.min(9, Math.abs(random.nextGaussian() * 3.5))];
+            }
+
+            if (i < count) {
+                signals[i++] = random.nextInt(10) == 0
+                        ? RARE_SIGNALS[random.nextInt(RARE_SIGNALS.length)]
+                        : OPERATORS[random.nextInt(OPERATORS.length)];
+            }
+        }
+
+        return signals;
+    }
+
+    public static byte[] archive(Signal[] signals, int blockSize) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (SignalArchiveWriter writer = new SignalArchiveWriter(output, blockSize)) {
+            writer.write(signals);
+        }
+
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(46);
+
+        for (int blockSize : new int[]{1, 7, 1000, SignalArchiveWriter.DEFAULT_BLOCK_SIZE}) {
+            Signal[] signals = new Signal[random.nextInt(20_000)];
+            for (int i = 0; i < signals.length; i++) {
+                signals[i] = Signal.values()[random.nextInt(Signal.values().length)];
+            }
+
+            SignalArchiveReader reader = new SignalArchiveReader(ByteBuffer.wrap(archive(signals, blockSize)));
+            assertEquals(signals.length, reader.getSignalCount());
+            assertArrayEquals(signals, reader.decodeAll());
+        }
+
+        assertEquals(0, new SignalArchiveReader(ByteBuffer.wrap(archive(new Signal[0], 10))).getBlockCount());
+        assertArrayEquals(new Signal[]{CLEAR, CLEAR, CLEAR}, new SignalArchiveReader(ByteBuffer.wrap(archive(new Signal[]{CLEAR, CLEAR, CLEAR}, 10))).decodeAll());
+    }
+
+    @Test
+    public void testSkewedFrequencies() throws IOException {
+        // fibonacci-like frequencies need codes longer than the limit
+        Signal[] signals = new Signal[200_000];
+        int i = 0;
+        for (int symbol = 0, frequency = 1, next = 1; i < signals.length; symbol = (symbol + 1) % Signal.values().length) {
+            for (int j = 0; j < frequency && i < signals.length; j++) {
+                signals[i++] = Signal.values()[symbol];
+            }
+
+            int sum = Math.min(frequency + next, 100_000);
+            frequency = next;
+            next = sum;
+        }
+
+        assertArrayEquals(signals, new SignalArchiveReader(ByteBuffer.wrap(archive(signals, signals.length))).decodeAll());
+    }
+
+    @Test
+    public void testRandomAccessAndParallelDecoding() throws IOException {
+        Signal[] signals = typicalSignals(100_000, 46);
+        SignalArchiveReader reader = new SignalArchiveReader(ByteBuffer.wrap(archive(signals, 4096)));
+
+        assertEquals(25, reader.getBlockCount());
+        assertArrayEquals(signals, reader.decodeAll(new ForkJoinPool(4)));
+
+        int block = reader.findBlock(50_000);
+        assertEquals(12, block);
+
+        Signal[] decoded = new Signal[reader.getBlockSignalCount(block)];
+        reader.decodeBlock(block, decoded, 0);
+        int first = (int) reader.getFirstSignal(block);
+        assertArrayEquals(Arrays.copyOfRange(signals, first, first + decoded.length), decoded);
+    }
+
+    @Test
+    public void testCompressionRatio() throws IOException {
+        Signal[] signals = typicalSignals(1_000_000, 46);
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            for (Signal signal : signals) {
+                gzip.write(signal.ordinal());
+            }
+        }
+
+        int archived = archive(signals, SignalArchiveWriter.DEFAULT_BLOCK_SIZE).length;
+        assertTrue(archived + " vs " + gzipped.size(), archived < gzipped.size() * 0.9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignData() {
+        new SignalArchiveReader(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedArchive() throws IOException {
+        byte[] archive = archive(typicalSignals(1000, 46), 1000);
+        new SignalArchiveReader(ByteBuffer.wrap(Arrays.copyOf(archive, archive.length - 1)));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.myzone.calculator;
+
+import com.google.common.collect.ImmutableMap;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.model.SignalDecoder;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author: myzone
+ * @date: 20.10.26 06:50
+ */
+public class SignalDecoderTest {
+
+    private final SignalDecoder decoder = new SignalDecoder();
+
+    @Test
+    public void testTokens() {
+        for (Signal signal : Signal.values()) {
+            assertEquals(signal, decoder.decodeToken(signal.getRepresentation()));
+        }
+
+        assertNull(decoder.decodeToken(""));
+        assertNull(decoder.decodeToken("M"));
+        assertNull(decoder.decodeToken("1/"));
+        assertNull(decoder.decodeToken("<"));
+        assertEquals(BACK_SPACE, new SignalDecoder(ImmutableMap.of("<", BACK_SPACE)).decodeToken("<"));
+    }
+
+    @Test
+    public void testLongestMatch() {
+        assertDecoded("1/x1/2", INVERSE, DIGIT_1, DIVIDE, DIGIT_2);
+        assertDecoded("CCEC", CLEAR, CLEAR_EVALUATION, CLEAR);
+        assertDecoded("MCMRMSM+M-", MEMORY_CLEAR, MEMORY_RESTORE, MEMORY_STORE, MEMORY_PLUS, MEMORY_MINUS);
+        assertDecoded("9√ ±\t← 1", DIGIT_9, SQUARE_ROOT, REVERSE, BACK_SPACE, DIGIT_1);
+    }
+
+    @Test
+    public void testUnknownTokens() {
+        List<Signal> signals = new ArrayList<>();
+
+        assertEquals(2, decoder.decode("12M3", 0, 4, signals::add));
+        assertEquals(Arrays.asList(DIGIT_1, DIGIT_2), signals);
+
+        signals.clear();
+        ByteBuffer bytes = ByteBuffer.wrap("2+√x".getBytes(StandardCharsets.UTF_8));
+        assertFalse(decoder.decode(bytes, signals::add));
+        assertEquals(Arrays.asList(DIGIT_2, PLUS, SQUARE_ROOT), signals);
+        assertEquals(5, bytes.position());
+
+        assertEquals(1, decoder.decode("√↑", 1, 2, signals::add));
+        assertEquals(1, decoder.decode("√↑", 0, 2, signals::add));
+        assertEquals(0, decoder.decode("😀", 0, 2, signals::add));
+    }
+
+    @Test
+    public void testRandomSequences() {
+        Signal[] values = Signal.values();
+        Random random = new Random(45);
+
+        for (int i = 0; i < 1000; i++) {
+            Signal[] expected = new Signal[random.nextInt(50)];
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < expected.length; j++) {
+                expected[j] = values[random.nextInt(values.length)];
+                text.append(expected[j].getRepresentation());
+            }
+
+            assertDecoded(text.toString(), expected);
+        }
+    }
+
+    private void assertDecoded(String text, Signal... expected) {
+        List<Signal> signals = new ArrayList<>();
+        assertEquals(text.length(), decoder.decode(text, 0, text.length(), signals::add));
+        assertEquals(Arrays.asList(expected), signals);
+
+        signals.clear();
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        assertTrue(decoder.decode(bytes, signals::add));
+        assertFalse(bytes.hasRemaining());
+        assertEquals(Arrays.asList(expected), signals);
+    }
+
+}
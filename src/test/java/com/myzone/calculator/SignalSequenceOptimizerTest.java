@@ -0,0 +1,129 @@
+package com.myzone.calculator;
+
+import com.myzone.calculator.controller.CalculatorStateFactory;
+import com.myzone.calculator.controller.SignalSequenceOptimizer;
+import com.myzone.calculator.model.CalculatorModel;
+import com.myzone.calculator.model.Signal;
+import com.myzone.calculator.view.CalculatorView;
+import com.myzone.utils.statemachine.State;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.myzone.calculator.model.Signal.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author: myzone
+ * @date: 19.10.26 23:40
+ */
+public class SignalSequenceOptimizerTest {
+
+    private static final Signal[] SIGNALS = Signal.values();
+
+    private final SignalSequenceOptimizer optimizer = new SignalSequenceOptimizer();
+
+    @Test
+    public void testRewrites() {
+        assertArrayEquals(new Signal[]{CLEAR, DIGIT_1}, optimizer.optimize(DIGIT_5, PLUS, DIGIT_3, CLEAR, DIGIT_1));
+        assertArrayEquals(new Signal[]{DIGIT_5, MEMORY_PLUS, CLEAR}, optimizer.optimize(DIGIT_5, MEMORY_PLUS, DIGIT_3, CLEAR));
+        assertArrayEquals(new Signal[]{DIGIT_5, MINUS, DIGIT_3}, optimizer.optimize(DIGIT_5, REVERSE, REVERSE, PLUS, MULTIPLY, MINUS, DIGIT_3));
+        assertArrayEquals(new Signal[]{DIGIT_1, PLUS}, optimizer.optimize(DIGIT_1, DIGIT_2, DIGIT_3, BACK_SPACE, BACK_SPACE, PLUS));
+        assertArrayEquals(new Signal[]{}, optimizer.optimize(DIGIT_0, DIGIT_4, BACK_SPACE, BACK_SPACE));
+    }
+
+    @Test
+    public void testDigitBackSpaceIsKeptInRArg() {
+        // BACK_SPACE leaves rArg in this state
+        Signal[] signals = {DIGIT_1, PLUS, DIGIT_2, DIGIT_3, BACK_SPACE};
+
+        assertArrayEquals(signals, optimizer.optimize(signals));
+    }
+
+    @Test
+    public void testDigitBackSpaceIsKeptOnceDisplayIsFull() {
+        for (int digits = 14; digits <= 17; digits++) {
+            Signal[] signals = new Signal[digits + 1];
+            Arrays.fill(signals, DIGIT_1);
+            signals[digits] = BACK_SPACE;
+
+            Signal[] optimized = optimizer.optimize(signals);
+            assertEquivalent(signals, optimized);
+            // the last digit fits into display only with less than 15 digits before it
+            assertEquals(digits <= 15 ? digits - 1 : digits + 1, optimized.length);
+        }
+    }
+
+    @Test
+    public void testRandomSequencesAreEquivalent() {
+        Random random = new Random(7);
+        int signalsTotal = 0;
+        int optimizedTotal = 0;
+
+        for (int i = 0; i < 3000; i++) {
+            Signal[] signals = new Signal[1 + random.nextInt(40)];
+            for (int j = 0; j < signals.length; j++) {
+                signals[j] = SIGNALS[random.nextInt(SIGNALS.length)];
+            }
+
+            Signal[] optimized = optimizer.optimize(signals);
+            assertEquivalent(signals, optimized);
+
+            signalsTotal += signals.length;
+            optimizedTotal += optimized.length;
+        }
+
+        assertTrue(optimizedTotal < signalsTotal);
+    }
+
+    /**
+     * Used by {@link CalculatorStatesTest} to check every sequence it runs.
+     */
+    static void assertOptimizedEquivalent(Signal... signals) {
+        assertEquivalent(signals, new SignalSequenceOptimizer().optimize(signals));
+    }
+
+    private static void assertEquivalent(Signal[] signals, Signal[] optimized) {
+        CalculatorModel expected = new CalculatorModel();
+        CalculatorModel actual = new CalculatorModel();
+
+        String expectedState = replay(expected, signals);
+        String actualState = replay(actual, optimized);
+
+        String message = Arrays.toString(signals);
+        assertEquals(message, expectedState, actualState);
+
+        try (CalculatorModel.Session expectedSession = expected.createSession();
+             CalculatorModel.Session actualSession = actual.createSession()) {
+            assertEquals(message, expectedSession.getDisplayText(), actualSession.getDisplayText());
+            assertEquals(message, expectedSession.getDisplayData(), actualSession.getDisplayData());
+            assertEquals(message, expectedSession.getlArg(), actualSession.getlArg());
+            assertEquals(message, expectedSession.getrArg(), actualSession.getrArg());
+            assertEquals(message, expectedSession.getMemory(), actualSession.getMemory());
+            // failed chain leaves the operation it was selecting, but it can't be observed until CLEAR
+            if (!"errorState".equals(expectedState)) {
+                assertEquals(message, expectedSession.getOperation(), actualSession.getOperation());
+            }
+        }
+    }
+
+    private static String replay(CalculatorModel model, Signal[] signals) {
+        CalculatorStateFactory stateFactory = new CalculatorStateFactory(model, mock(CalculatorView.class));
+
+        State<Signal> state = stateFactory.getStartState();
+        for (Signal signal : signals) {
+            try {
+                state = state.react(signal);
+            } catch (RuntimeException e) {
+                // state machines keep the state a signal has failed in
+            }
+        }
+
+        return state.toString();
+    }
+
+}